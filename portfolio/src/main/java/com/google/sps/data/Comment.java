@@ -13,4 +13,16 @@ public class Comment {
     this.messageContent = messageContent;
     this.timeStamp = timeStamp;
   }
+
+  public String getAuthor() {
+    return author;
+  }
+
+  public String getMessageContent() {
+    return messageContent;
+  }
+
+  public Date getTimeStamp() {
+    return timeStamp;
+  }
 }
@@ -0,0 +1,173 @@
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Accepts new comment entities without waiting on Datastore and writes them from a background
+ * thread in batches.
+ *
+ * A batch is written once it holds {@code maxBatchSize} entities or once the oldest entity in it
+ * has waited {@code maxLingerMillis}, whichever comes first. The queue is bounded, so callers
+ * learn through {@code offer} when writes are falling behind and can push back on clients.
+ */
+public final class CommentIngestionQueue {
+
+  private static final Logger logger = Logger.getLogger(CommentIngestionQueue.class.getName());
+
+  // Datastore rejects batch puts of more than 500 entities.
+  private static final int MAX_DATASTORE_BATCH = 500;
+  private static final int MAX_PUT_ATTEMPTS = 3;
+  private static final long IDLE_POLL_MILLIS = 1000;
+
+  private final DatastoreService datastore;
+  private final BlockingQueue<Entity> pending;
+  private final int maxBatchSize;
+  private final long maxLingerMillis;
+  private final Consumer<List<Entity>> afterFlush;
+  private final Thread flusher;
+
+  // Offers hold the read lock while they check running and queue, so once shutdown has taken the
+  // write lock and cleared running, every accepted entity is already in pending.
+  private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+  private volatile boolean running = true;
+
+  /**
+   * @param datastore Where batches are written.
+   * @param capacity The most entities that may wait to be written at once.
+   * @param maxBatchSize The most entities written by a single put. At most 500.
+   * @param maxLingerMillis The longest an entity waits for its batch to fill up.
+   * @param afterFlush Given every batch once it has been written, e.g. to invalidate caches.
+   */
+  public CommentIngestionQueue(DatastoreService datastore, int capacity, int maxBatchSize,
+      long maxLingerMillis, Consumer<List<Entity>> afterFlush) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive.");
+    }
+
+    if (maxBatchSize <= 0 || maxBatchSize > MAX_DATASTORE_BATCH) {
+      throw new IllegalArgumentException(
+          "maxBatchSize must be between 1 and " + MAX_DATASTORE_BATCH + ".");
+    }
+
+    if (maxLingerMillis < 0) {
+      throw new IllegalArgumentException("maxLingerMillis cannot be negative.");
+    }
+
+    this.datastore = datastore;
+    this.pending = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.maxLingerMillis = maxLingerMillis;
+    this.afterFlush = afterFlush;
+    this.flusher = new Thread(this::flushLoop, "comment-ingestion");
+    this.flusher.setDaemon(true);
+  }
+
+  /** Starts the background thread that writes batches. */
+  public void start() {
+    flusher.start();
+  }
+
+  /**
+   * Queues {@code entity} to be written. Returns false without queueing it if the queue is full
+   * or has been shut down.
+   */
+  public boolean offer(Entity entity) {
+    runningLock.readLock().lock();
+    try {
+      return running && pending.offer(entity);
+    } finally {
+      runningLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Stops accepting entities and waits up to {@code timeoutMillis} for those already queued to be
+   * written.
+   */
+  public void shutdown(long timeoutMillis) throws InterruptedException {
+    runningLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      runningLock.writeLock().unlock();
+    }
+    flusher.join(timeoutMillis);
+    if (!pending.isEmpty()) {
+      logger.warning(pending.size() + " comments were not saved before shutdown.");
+    }
+  }
+
+  private void flushLoop() {
+    try {
+      while (running || !pending.isEmpty()) {
+        List<Entity> batch = nextBatch();
+        if (!batch.isEmpty()) {
+          write(batch);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Waits for the first entity, then keeps collecting until the batch is full or the linger time
+   * has passed. Returns an empty batch if nothing arrived while idle.
+   */
+  private List<Entity> nextBatch() throws InterruptedException {
+    List<Entity> batch = new ArrayList<>();
+    Entity first = pending.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return batch;
+    }
+    batch.add(first);
+
+    // While shutting down there is no point in waiting for more entities to arrive.
+    long deadline = System.currentTimeMillis() + (running ? maxLingerMillis : 0);
+    while (batch.size() < maxBatchSize) {
+      pending.drainTo(batch, maxBatchSize - batch.size());
+      long remaining = deadline - System.currentTimeMillis();
+      if (batch.size() >= maxBatchSize || remaining <= 0) {
+        break;
+      }
+
+      Entity next = pending.poll(remaining, TimeUnit.MILLISECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  private void write(List<Entity> batch) {
+    for (int attempt = 1; attempt <= MAX_PUT_ATTEMPTS; attempt++) {
+      try {
+        datastore.put(batch);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Failed to save " + batch.size() + " comments, attempt "
+            + attempt + " of " + MAX_PUT_ATTEMPTS + ".", e);
+        continue;
+      }
+      try {
+        afterFlush.accept(batch);
+      } catch (RuntimeException e) {
+        // The comments are saved; don't let a listener failure stop the flusher thread.
+        logger.log(Level.WARNING, "Post-save callback failed.", e);
+      }
+      return;
+    }
+    logger.severe("Dropped " + batch.size() + " comments after repeated failures.");
+  }
+}
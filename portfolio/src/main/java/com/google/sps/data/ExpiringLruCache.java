@@ -0,0 +1,116 @@
+package com.google.sps.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe, size-bounded cache whose entries also expire a fixed time after they are stored.
+ * When full, the least recently used entry is evicted to make room.
+ *
+ * Every call to {@code invalidateAll} advances the cache version. Callers that build a value from
+ * a slower source should read {@code version()} first and pass it to {@code put}, so a value built
+ * from data that was overwritten in the meantime is dropped instead of cached.
+ */
+public final class ExpiringLruCache<K, V> {
+
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LinkedHashMap<K, Entry<V>> entries;
+
+  private long version = 0;
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  /**
+   * @param maxEntries The largest number of entries held at once. Must be positive.
+   * @param ttlMillis How long an entry stays valid after it is stored. Must be positive.
+   */
+  public ExpiringLruCache(int maxEntries, long ttlMillis) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive.");
+    }
+
+    if (ttlMillis <= 0) {
+      throw new IllegalArgumentException("ttlMillis must be positive.");
+    }
+
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+    // Access order makes the eldest entry the least recently used one.
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /** Returns the cached value for {@code key}, or null if it is missing or has expired. */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+
+    if (entry.isExpired(System.currentTimeMillis())) {
+      entries.remove(key);
+      evictions++;
+      misses++;
+      return null;
+    }
+
+    hits++;
+    return entry.value;
+  }
+
+  /**
+   * Stores {@code value} under {@code key} if the cache has not been invalidated since
+   * {@code expectedVersion} was read. Returns whether the value was stored.
+   */
+  public synchronized boolean put(K key, V value, long expectedVersion) {
+    if (expectedVersion != version) {
+      return false;
+    }
+
+    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    evictOverflow();
+    return true;
+  }
+
+  /** Drops every entry and advances the version. */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    version++;
+  }
+
+  /** Returns the current version, which changes on every call to {@code invalidateAll}. */
+  public synchronized long version() {
+    return version;
+  }
+
+  /** Returns a snapshot of the hit, miss and eviction counters. */
+  public synchronized CacheStats stats() {
+    return new CacheStats(hits, misses, evictions, entries.size());
+  }
+
+  private void evictOverflow() {
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long expiresAt;
+
+    private Entry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return now >= expiresAt;
+    }
+  }
+}
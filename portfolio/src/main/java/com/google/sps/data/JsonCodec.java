@@ -0,0 +1,190 @@
+package com.google.sps.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Shared JSON codec for every servlet. Gson instances are thread-safe, so one preconfigured
+ * instance is built once and reused instead of paying for reflection and adapter lookup on each
+ * request. The response types have hand-written adapters that produce the same JSON Gson's
+ * reflective adapters would.
+ */
+public final class JsonCodec {
+
+  public static final Gson GSON = new GsonBuilder()
+      .registerTypeAdapter(Comment.class, new CommentAdapter())
+      .registerTypeAdapter(LoginStatus.class, new LoginStatusAdapter())
+      .create();
+
+  private static final TypeAdapter<Comment> COMMENT_ADAPTER = GSON.getAdapter(Comment.class);
+
+  private JsonCodec() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns a JsonWriter that encodes straight to {@code out} as UTF-8. Callers must flush it once
+   * they are done.
+   */
+  public static JsonWriter newWriter(OutputStream out) throws IOException {
+    return GSON.newJsonWriter(
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+  }
+
+  /** Writes one comment to {@code writer}. */
+  public static void writeComment(JsonWriter writer, Comment comment) throws IOException {
+    COMMENT_ADAPTER.write(writer, comment);
+  }
+
+  /** Returns {@code value} encoded as UTF-8 JSON. */
+  public static byte[] toBytes(Object value) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    JsonWriter writer = newWriter(buffer);
+    GSON.toJson(value, value.getClass(), writer);
+    writer.flush();
+    return buffer.toByteArray();
+  }
+
+  /** Writes a Comment field by field, formatting its time the way Gson does by default. */
+  private static final class CommentAdapter extends TypeAdapter<Comment> {
+
+    // DateFormat is not thread-safe, so each thread keeps its own.
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = ThreadLocal.withInitial(
+        () -> DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT, Locale.US));
+
+    @Override
+    public void write(JsonWriter out, Comment comment) throws IOException {
+      if (comment == null) {
+        out.nullValue();
+        return;
+      }
+
+      out.beginObject();
+      if (comment.getAuthor() != null) {
+        out.name("author").value(comment.getAuthor());
+      }
+      if (comment.getMessageContent() != null) {
+        out.name("messageContent").value(comment.getMessageContent());
+      }
+      if (comment.getTimeStamp() != null) {
+        out.name("timeStamp").value(DATE_FORMAT.get().format(comment.getTimeStamp()));
+      }
+      out.endObject();
+    }
+
+    @Override
+    public Comment read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      String author = null;
+      String messageContent = null;
+      Date timeStamp = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        String name = in.nextName();
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          continue;
+        }
+        switch (name) {
+          case "author":
+            author = in.nextString();
+            break;
+          case "messageContent":
+            messageContent = in.nextString();
+            break;
+          case "timeStamp":
+            timeStamp = parseDate(in.nextString());
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Comment(author, messageContent, timeStamp);
+    }
+
+    private static Date parseDate(String text) {
+      try {
+        return DATE_FORMAT.get().parse(text);
+      } catch (ParseException e) {
+        throw new JsonSyntaxException("Invalid timeStamp: " + text, e);
+      }
+    }
+  }
+
+  /** Converts a LoginStatus, leaving out the email for logged-out visitors. */
+  private static final class LoginStatusAdapter extends TypeAdapter<LoginStatus> {
+
+    @Override
+    public void write(JsonWriter out, LoginStatus status) throws IOException {
+      if (status == null) {
+        out.nullValue();
+        return;
+      }
+
+      out.beginObject();
+      out.name("loggedIn").value(status.isLoggedIn());
+      if (status.getEmail() != null) {
+        out.name("email").value(status.getEmail());
+      }
+      if (status.getUrl() != null) {
+        out.name("url").value(status.getUrl());
+      }
+      out.endObject();
+    }
+
+    @Override
+    public LoginStatus read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      boolean loggedIn = false;
+      String email = null;
+      String url = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        String name = in.nextName();
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          continue;
+        }
+        switch (name) {
+          case "loggedIn":
+            loggedIn = in.nextBoolean();
+            break;
+          case "email":
+            email = in.nextString();
+            break;
+          case "url":
+            url = in.nextString();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return loggedIn ? LoginStatus.loggedIn(email, url) : LoginStatus.loggedOut(url);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.google.sps.data;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A serialized JSON response body together with the ETag derived from its content. Two pages with
+ * the same bytes always have the same ETag, even if they were rendered on different instances.
+ */
+public final class JsonPage {
+
+  private final byte[] bytes;
+  private final String etag;
+
+  public JsonPage(byte[] bytes) {
+    this.bytes = bytes;
+    this.etag = "\"" + contentHash(bytes) + "\"";
+  }
+
+  /** Returns the UTF-8 encoded response body. Callers must not modify the array. */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /** Returns the quoted ETag for this page. */
+  public String getEtag() {
+    return etag;
+  }
+
+  /**
+   * Checks whether an If-None-Match header names this page, meaning the client already holds it.
+   * The header may list several ETags and may mark them as weak.
+   */
+  public boolean matches(String ifNoneMatch) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String contentHash(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      // The first 128 bits are plenty to tell versions of one page apart.
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+}
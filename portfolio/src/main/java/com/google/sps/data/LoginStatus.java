@@ -0,0 +1,38 @@
+package com.google.sps.data;
+
+/**
+ * Login state of the current visitor. When logged in, {@code url} logs the visitor out;
+ * otherwise it logs them in.
+ */
+public final class LoginStatus {
+
+  private final boolean loggedIn;
+  private final String email;
+  private final String url;
+
+  private LoginStatus(boolean loggedIn, String email, String url) {
+    this.loggedIn = loggedIn;
+    this.email = email;
+    this.url = url;
+  }
+
+  public static LoginStatus loggedIn(String email, String logoutUrl) {
+    return new LoginStatus(true, email, logoutUrl);
+  }
+
+  public static LoginStatus loggedOut(String loginUrl) {
+    return new LoginStatus(false, null, loginUrl);
+  }
+
+  public boolean isLoggedIn() {
+    return loggedIn;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+}
@@ -0,0 +1,41 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.data.CacheStats;
+import com.google.sps.data.JsonCodec;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** Servlet that reports the hit, miss and eviction counters of the in-memory caches. */
+@WebServlet("/cache-stats")
+public class CacheStatsServlet extends HttpServlet {
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Map<String, CacheStats> stats = new LinkedHashMap<>();
+    stats.put("comments", DataServlet.firstPageCache.stats());
+    stats.put("loggedOut", LoginServlet.loggedOutCache.stats());
+    stats.put("loggedIn", LoginServlet.loggedInCache.stats());
+
+    response.setContentType("application/json");
+    response.getWriter().println(JsonCodec.GSON.toJson(stats));
+  }
+}
@@ -0,0 +1,264 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.sps.data.Comment;
+import com.google.sps.data.JsonCodec;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet that pushes newly saved comments to connected clients as Server-Sent Events.
+ *
+ * Each event carries one comment as JSON, and its ID is the comment's time in milliseconds since
+ * the epoch. A reconnecting client sends the last ID it saw in the Last-Event-ID header and first
+ * receives any comments it missed, oldest first. If it missed more than
+ * {@code MAX_CATCH_UP_COMMENTS}, it instead receives a single {@code reset} event and should reload
+ * the comments from {@code /data}. Connections are closed after a while; EventSource clients
+ * reconnect on their own.
+ *
+ * Events are written to clients from a small pool of sender threads, never from the thread that
+ * saved the comments, so a slow client cannot hold up Datastore writes. Each client has its own
+ * buffer of unsent events; a client that falls too far behind is disconnected and catches up when
+ * it reconnects.
+ */
+@WebServlet(urlPatterns = "/data/stream", asyncSupported = true)
+public class CommentStreamServlet extends HttpServlet {
+
+  private static final Logger logger = Logger.getLogger(CommentStreamServlet.class.getName());
+
+  private static final long STREAM_TIMEOUT_MILLIS = 5 * 60 * 1000;
+  private static final int MAX_CATCH_UP_COMMENTS = 100;
+  private static final int MAX_PENDING_CHARS = 1 << 20;
+  private static final int SENDER_THREADS = 4;
+
+  private static final Map<AsyncContext, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+  private static final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS,
+      task -> {
+        Thread thread = new Thread(task, "comment-stream");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Date lastSeen = null;
+    String lastEventId = request.getHeader("Last-Event-ID");
+    if (lastEventId != null && !lastEventId.isEmpty()) {
+      try {
+        lastSeen = new Date(Long.parseLong(lastEventId));
+      } catch (NumberFormatException e) {
+        // Not one of our IDs; treat it as a fresh connection.
+      }
+    }
+
+    response.setContentType("text/event-stream");
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader("Cache-Control", "no-cache");
+
+    AsyncContext context = request.startAsync();
+    context.setTimeout(STREAM_TIMEOUT_MILLIS);
+    context.addListener(new Unsubscriber());
+
+    // Subscribe before catching up so nothing saved in between is missed. A comment saved in that
+    // window may be sent twice; clients can drop repeats by event ID.
+    Subscriber subscriber = new Subscriber(context);
+    subscribers.put(context, subscriber);
+    if (lastSeen != null) {
+      String missed;
+      try {
+        missed = catchUpEvents(lastSeen);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Failed to read missed comments.", e);
+        close(context);
+        return;
+      }
+      subscriber.enqueue(missed);
+    } else {
+      // Flush the headers so the client knows the stream is open.
+      subscriber.enqueue(": connected\n\n");
+    }
+  }
+
+  /**
+   * Queues the given newly saved comment entities for every connected client. Returns without
+   * waiting for any client to receive them.
+   */
+  static void publish(List<Entity> saved) {
+    if (subscribers.isEmpty() || saved.isEmpty()) {
+      return;
+    }
+
+    // Serialize once, then copy the same text to every client.
+    StringBuilder events = new StringBuilder();
+    for (Entity entity : saved) {
+      appendEvent(events, entity);
+    }
+    String text = events.toString();
+    for (Subscriber subscriber : subscribers.values()) {
+      subscriber.enqueue(text);
+    }
+  }
+
+  /**
+   * Returns the events for comments saved after {@code lastSeen}, oldest first, or a reset event
+   * if there are too many to send.
+   */
+  private static String catchUpEvents(Date lastSeen) {
+    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+    // Fetch one more than can be sent to learn whether some would be left out.
+    List<Entity> missed = datastore
+        .prepare(DataServlet.commentQuery(lastSeen, SortDirection.ASCENDING))
+        .asList(FetchOptions.Builder.withLimit(MAX_CATCH_UP_COMMENTS + 1));
+    if (missed.size() > MAX_CATCH_UP_COMMENTS) {
+      // Sending only some would leave a gap the client cannot see.
+      return "event: reset\ndata: reset\n\n";
+    }
+
+    StringBuilder events = new StringBuilder();
+    for (Entity entity : missed) {
+      appendEvent(events, entity);
+    }
+    return events.toString();
+  }
+
+  private static void appendEvent(StringBuilder events, Entity entity) {
+    Comment comment = DataServlet.toComment(entity);
+    Date timeStamp = (Date) entity.getProperty("timeStamp");
+    events.append("id: ").append(timeStamp.getTime()).append('\n');
+    events.append("data: ").append(JsonCodec.GSON.toJson(comment)).append("\n\n");
+  }
+
+  /**
+   * One connected client and the events waiting to be written to it. At most one sender thread
+   * writes to a client at a time, so its events arrive whole and in order.
+   */
+  private static final class Subscriber {
+    private final AsyncContext context;
+
+    // Guarded by this.
+    private final StringBuilder pending = new StringBuilder();
+    private boolean sending = false;
+
+    Subscriber(AsyncContext context) {
+      this.context = context;
+    }
+
+    /** Adds {@code text} to the events waiting for this client and makes sure a sender runs. */
+    void enqueue(String text) {
+      synchronized (this) {
+        if (pending.length() + text.length() > MAX_PENDING_CHARS) {
+          pending.setLength(0);
+          close(context);
+          return;
+        }
+        pending.append(text);
+        if (sending) {
+          return;
+        }
+        sending = true;
+      }
+      senders.execute(this::sendPending);
+    }
+
+    /** Writes waiting events until none are left, dropping the client if the connection is gone. */
+    private void sendPending() {
+      while (true) {
+        String text;
+        synchronized (this) {
+          if (pending.length() == 0) {
+            sending = false;
+            return;
+          }
+          text = pending.toString();
+          pending.setLength(0);
+        }
+
+        if (!write(text)) {
+          synchronized (this) {
+            pending.setLength(0);
+            sending = false;
+          }
+          close(context);
+          return;
+        }
+      }
+    }
+
+    /** Writes {@code text} to the client and returns whether the connection is still usable. */
+    private boolean write(String text) {
+      try {
+        PrintWriter writer = context.getResponse().getWriter();
+        writer.write(text);
+        writer.flush();
+        return !writer.checkError();
+      } catch (IOException | IllegalStateException e) {
+        return false;
+      }
+    }
+  }
+
+  private static void close(AsyncContext context) {
+    if (subscribers.remove(context) != null) {
+      try {
+        context.complete();
+      } catch (IllegalStateException e) {
+        // Already completed by the container.
+      }
+    }
+  }
+
+  /** Forgets a client once its stream ends for any reason. */
+  private static final class Unsubscriber implements AsyncListener {
+    @Override
+    public void onComplete(AsyncEvent event) {
+      subscribers.remove(event.getAsyncContext());
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      close(event.getAsyncContext());
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      close(event.getAsyncContext());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
+  }
+}
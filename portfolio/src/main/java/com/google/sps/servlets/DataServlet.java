@@ -14,48 +14,155 @@
 
 package com.google.sps.servlets;
 
+import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.datastore.DatastoreService;
 import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
-import com.google.appengine.api.datastore.PreparedQuery;
+import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.QueryResultIterator;
 import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
+import com.google.gson.stream.JsonWriter;
 import com.google.sps.data.Comment;
+import com.google.sps.data.CommentIngestionQueue;
+import com.google.sps.data.ExpiringLruCache;
+import com.google.sps.data.JsonCodec;
+import com.google.sps.data.JsonPage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+import javax.servlet.annotation.WebInitParam;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Date;
-import com.google.gson.Gson;
-import java.util.Arrays;
 
-/** Servlet that fetches and stores comments */
-@WebServlet("/data")
+/**
+ * Servlet that fetches and stores comments.
+ *
+ * GET returns one page of comments, newest first, as
+ * {@code {"comments": [...], "cursor": "...", "latest": 1593561600000}}. The optional
+ * {@code limit} parameter sets the page size and {@code cursor} resumes from the cursor returned
+ * with the previous page. The cursor is omitted once the last page has been sent. {@code latest}
+ * is the time of the newest comment on the page in milliseconds since the epoch; passing it back
+ * as {@code since} returns only comments posted after it.
+ *
+ * The first page is what nearly every visitor asks for, so it is kept pre-serialized in memory
+ * until it expires or a new comment is posted. It carries an ETag, so clients that already hold the
+ * current first page get a 304 Not Modified instead of the body.
+ *
+ * POST queues the comment and returns right away; comments are written to Datastore in batches
+ * by a background thread. When too many comments are waiting, POST answers 429 Too Many Requests.
+ */
+@WebServlet(
+    urlPatterns = "/data",
+    initParams = {
+      @WebInitParam(name = "ingestQueueCapacity", value = "1000"),
+      @WebInitParam(name = "ingestMaxBatchSize", value = "100"),
+      @WebInitParam(name = "ingestMaxLingerMillis", value = "250")
+    })
 public class DataServlet extends HttpServlet {
 
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+  private static final long SHUTDOWN_DRAIN_MILLIS = 10 * 1000;
+
+  private static final int DEFAULT_PAGE_SIZE = 20;
+  private static final int MAX_PAGE_SIZE = 100;
+
+  private static final int MAX_CACHED_PAGES = 8;
+  private static final long CACHED_PAGE_TTL_MILLIS = 30 * 1000;
+
+  // First pages of the feed keyed by page size, held as the exact bytes sent to the client.
+  static final ExpiringLruCache<Integer, JsonPage> firstPageCache =
+      new ExpiringLruCache<>(MAX_CACHED_PAGES, CACHED_PAGE_TTL_MILLIS);
+
+  private CommentIngestionQueue ingestionQueue;
+
+  @Override
+  public void init() {
+    ingestionQueue = new CommentIngestionQueue(
+        DatastoreServiceFactory.getDatastoreService(),
+        Integer.parseInt(getInitParameter("ingestQueueCapacity")),
+        Integer.parseInt(getInitParameter("ingestMaxBatchSize")),
+        Long.parseLong(getInitParameter("ingestMaxLingerMillis")),
+        this::onCommentsSaved);
+    ingestionQueue.start();
+  }
+
+  @Override
+  public void destroy() {
+    try {
+      ingestionQueue.shutdown(SHUTDOWN_DRAIN_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Query query = new Query("Comment").addSort("timeStamp", SortDirection.DESCENDING);
-    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    PreparedQuery results = datastore.prepare(query);
-
-    ArrayList<Comment> arrComments = new ArrayList<>();
-    for (Entity entity : results.asIterable()) {
-      String curAuthor = (String) entity.getProperty("author");
-      String curMessage = (String) entity.getProperty("messageContent");
-      Date curTimestamp = (Date) entity.getProperty("timeStamp");
-      Comment curComment = new Comment(curAuthor, curMessage, curTimestamp);
-      arrComments.add(curComment);
+    int limit;
+    try {
+      limit = parseLimit(request.getParameter("limit"));
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
     }
 
-    Gson gson = new Gson();
-    response.setContentType("applications/json");
-    response.getWriter().println(gson.toJson(arrComments));
+    Date since = null;
+    String sinceParam = request.getParameter("since");
+    if (sinceParam != null && !sinceParam.isEmpty()) {
+      try {
+        since = new Date(Long.parseLong(sinceParam));
+      } catch (NumberFormatException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "since must be a number.");
+        return;
+      }
+    }
+
+    FetchOptions fetchOptions = FetchOptions.Builder.withLimit(limit);
+    String startCursor = request.getParameter("cursor");
+    if (startCursor != null && !startCursor.isEmpty()) {
+      try {
+        fetchOptions.startCursor(Cursor.fromWebSafeString(startCursor));
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid cursor.");
+        return;
+      }
+    }
+
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+
+    Query query = commentQuery(since);
+    if (since == null && (startCursor == null || startCursor.isEmpty())) {
+      JsonPage page = firstPageCache.get(limit);
+      if (page == null) {
+        long cacheVersion = firstPageCache.version();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writePage(buffer, query, fetchOptions, limit);
+        page = new JsonPage(buffer.toByteArray());
+        firstPageCache.put(limit, page, cacheVersion);
+      }
+
+      // Make browsers revalidate every time so a new comment shows up on the next load.
+      response.setHeader("Cache-Control", "no-cache");
+      response.setHeader("ETag", page.getEtag());
+      if (page.matches(request.getHeader("If-None-Match"))) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return;
+      }
+      response.setContentLength(page.getBytes().length);
+      response.getOutputStream().write(page.getBytes());
+      return;
+    }
+
+    writePage(response.getOutputStream(), query, fetchOptions, limit);
   }
 
   @Override
@@ -64,15 +171,109 @@ public class DataServlet extends HttpServlet {
     String userEmail = userService.getCurrentUser().getEmail();
     String commentMessage = request.getParameter("comment-message");
     Date commentTime = new Date();
-    
+
     if (commentMessage != null) {
       Entity commentEntity = new Entity("Comment");
       commentEntity.setProperty("messageContent", commentMessage);
       commentEntity.setProperty("author", userEmail);
       commentEntity.setProperty("timeStamp", commentTime);
-      DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-      datastore.put(commentEntity);
+      if (!ingestionQueue.offer(commentEntity)) {
+        response.setHeader("Retry-After", "1");
+        response.sendError(SC_TOO_MANY_REQUESTS, "Too many comments are waiting to be saved.");
+        return;
+      }
     }
     response.sendRedirect("/contact.html");
   }
+
+  /** Called from the ingestion thread once a batch of comments has been written. */
+  private void onCommentsSaved(List<Entity> saved) {
+    // Only drop cached pages once the new comments can actually be read back.
+    firstPageCache.invalidateAll();
+    CommentStreamServlet.publish(saved);
+  }
+
+  /**
+   * Returns the query for comments, newest first. If {@code since} is not null, only comments
+   * posted after it are included.
+   */
+  static Query commentQuery(Date since) {
+    return commentQuery(since, SortDirection.DESCENDING);
+  }
+
+  /** Same as {@code commentQuery(Date)}, but sorted by time in the given direction. */
+  static Query commentQuery(Date since, SortDirection direction) {
+    Query query = new Query("Comment").addSort("timeStamp", direction);
+    if (since != null) {
+      query.setFilter(new FilterPredicate("timeStamp", FilterOperator.GREATER_THAN, since));
+    }
+    return query;
+  }
+
+  /**
+   * Queries one page of comments and writes it to {@code out}, one comment at a time as they are
+   * read from Datastore, followed by the cursor for the next page if there may be one.
+   */
+  private static void writePage(
+      OutputStream out, Query query, FetchOptions fetchOptions, int limit) throws IOException {
+    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+    QueryResultIterator<Entity> results =
+        datastore.prepare(query).asQueryResultIterator(fetchOptions);
+
+    JsonWriter writer = JsonCodec.newWriter(out);
+    writer.beginObject();
+    writer.name("comments").beginArray();
+    int count = 0;
+    Date latest = null;
+    while (results.hasNext()) {
+      Entity entity = results.next();
+      if (latest == null) {
+        latest = (Date) entity.getProperty("timeStamp");
+      }
+      JsonCodec.writeComment(writer, toComment(entity));
+      count++;
+    }
+    writer.endArray();
+
+    if (latest != null) {
+      writer.name("latest").value(latest.getTime());
+    }
+
+    // A short page means there is nothing left to fetch.
+    if (count == limit) {
+      writer.name("cursor").value(results.getCursor().toWebSafeString());
+    }
+    writer.endObject();
+    writer.flush();
+  }
+
+  /** Converts a stored Comment entity into its response object. */
+  static Comment toComment(Entity entity) {
+    String author = (String) entity.getProperty("author");
+    String message = (String) entity.getProperty("messageContent");
+    Date timeStamp = (Date) entity.getProperty("timeStamp");
+    return new Comment(author, message, timeStamp);
+  }
+
+  /**
+   * Returns the requested page size, or the default when none was given.
+   * Throws IllegalArgumentException if the value is not a number between 1 and MAX_PAGE_SIZE.
+   */
+  private static int parseLimit(String limitParam) {
+    if (limitParam == null || limitParam.isEmpty()) {
+      return DEFAULT_PAGE_SIZE;
+    }
+
+    int limit;
+    try {
+      limit = Integer.parseInt(limitParam);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("limit must be a number.");
+    }
+
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+    }
+    return limit;
+  }
 }
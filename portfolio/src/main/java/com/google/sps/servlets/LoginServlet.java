@@ -14,47 +14,93 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.datastore.DatastoreService;
-import com.google.appengine.api.datastore.DatastoreServiceFactory;
-import com.google.appengine.api.datastore.Entity;
-import com.google.appengine.api.datastore.PreparedQuery;
-import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.users.User;
 import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
-import com.google.sps.data.Comment;
+import com.google.sps.data.ExpiringLruCache;
+import com.google.sps.data.JsonCodec;
+import com.google.sps.data.LoginStatus;
 import java.io.IOException;
-import java.lang.String;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import javax.servlet.annotation.WebInitParam;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.ArrayList;
-import com.google.gson.Gson;
 
-@WebServlet("/login")
-public class LoginServlet extends HttpServlet{
+/**
+ * Servlet that reports whether the visitor is logged in, along with the URL to log in or out.
+ *
+ * Every page view asks for this, and the answer rarely changes, so responses are kept serialized
+ * in memory. Login URLs embed the host the visitor used, so the logged-out response is kept per
+ * host, and logged-in responses per user and host. The host comes from the request, so only the
+ * hosts listed in the {@code cachedHosts} init parameter are cached; requests naming any other
+ * host are answered without touching the caches.
+ */
+@WebServlet(
+    urlPatterns = "/login",
+    initParams = {
+      @WebInitParam(name = "cachedHosts", value = "localhost,dterr-step-2020.appspot.com")
+    })
+public class LoginServlet extends HttpServlet {
+
+  private static final String REDIRECT_URL = "/contact.html";
+
+  private static final int MAX_CACHED_HOSTS = 16;
+  private static final long LOGGED_OUT_TTL_MILLIS = 60 * 60 * 1000;
+  private static final int MAX_CACHED_USERS = 1000;
+  private static final long LOGGED_IN_TTL_MILLIS = 10 * 60 * 1000;
+
+  static final ExpiringLruCache<String, byte[]> loggedOutCache =
+      new ExpiringLruCache<>(MAX_CACHED_HOSTS, LOGGED_OUT_TTL_MILLIS);
+  static final ExpiringLruCache<String, byte[]> loggedInCache =
+      new ExpiringLruCache<>(MAX_CACHED_USERS, LOGGED_IN_TTL_MILLIS);
+
+  private Set<String> cachedHosts;
+
+  @Override
+  public void init() {
+    cachedHosts = new HashSet<>(Arrays.asList(getInitParameter("cachedHosts").split(",")));
+  }
 
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     UserService userService = UserServiceFactory.getUserService();
-    boolean loginStatus = userService.isUserLoggedIn();
-    String urlToRedirect = "/contact.html";
-
-    ArrayList<String> arrStrings = new ArrayList();
-    if (loginStatus) {
-      arrStrings.add("true");
-      String userEmail = userService.getCurrentUser().getEmail();
-      String logoutURL = userService.createLogoutURL(urlToRedirect);
-      arrStrings.add("<p>Hello, " + userEmail + "! You are logged in.</p>" + 
-        "<p><a href=\""+ logoutURL + "\">Click here to log out.</a></p>");
+    String host = request.getServerName();
+    boolean cacheable = cachedHosts.contains(host);
+
+    byte[] body;
+    if (userService.isUserLoggedIn()) {
+      User user = userService.getCurrentUser();
+      String key = user.getUserId() + "@" + host;
+      body = cacheable ? loggedInCache.get(key) : null;
+      if (body == null) {
+        long cacheVersion = loggedInCache.version();
+        String logoutUrl = userService.createLogoutURL(REDIRECT_URL);
+        body = JsonCodec.toBytes(LoginStatus.loggedIn(user.getEmail(), logoutUrl));
+        if (cacheable) {
+          loggedInCache.put(key, body, cacheVersion);
+        }
+      }
     } else {
-      arrStrings.add("false");
-      String loginURL = userService.createLoginURL(urlToRedirect);
-      arrStrings.add("<p><a href=\"" + loginURL + "\"> Login Here </a></p>");
+      body = cacheable ? loggedOutCache.get(host) : null;
+      if (body == null) {
+        long cacheVersion = loggedOutCache.version();
+        String loginUrl = userService.createLoginURL(REDIRECT_URL);
+        body = JsonCodec.toBytes(LoginStatus.loggedOut(loginUrl));
+        if (cacheable) {
+          loggedOutCache.put(host, body, cacheVersion);
+        }
+      }
     }
 
-    Gson gson = new Gson();
-    response.setContentType("text/json;");
-    response.getWriter().println(gson.toJson(arrStrings));
+    // The answer depends on the visitor's cookies, so browsers and proxies must not reuse it.
+    response.setHeader("Cache-Control", "private, no-store");
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
   }
-}
\ No newline at end of file
+}
@@ -23,29 +23,56 @@ function loadMessageBoard() {
 /** Contacts Login servlet to verify if user is logged in. */
 function verifyLogin() {
   console.log("Fetching login status...");
-  fetch('/login').then(response => response.json()).then((arrStrings) => {
+  fetch('/login').then(response => response.json()).then((loginStatus) => {
     const loginElement = document.getElementById("login-box");
-    if (arrStrings[0] == "false") {
-      document.getElementById("comment-form").style.display = "none";
-    } else {
-      document.getElementById("comment-form").style.display = "block";
-    }
+    document.getElementById("comment-form").style.display =
+        loginStatus.loggedIn ? "block" : "none";
     console.log("Displaying login status");
-    loginElement.innerHTML += arrStrings[1];
+    loginElement.appendChild(createLoginElement(loginStatus));
   });
 }
 
+/** Helper function to build the login greeting and link from a LoginStatus. */
+function createLoginElement(loginStatus) {
+  const container = document.createElement("div");
+  const linkElement = document.createElement("a");
+  linkElement.href = loginStatus.url;
+  if (loginStatus.loggedIn) {
+    const greetingElement = document.createElement("p");
+    greetingElement.innerText = "Hello, " + loginStatus.email + "! You are logged in.";
+    container.appendChild(greetingElement);
+    linkElement.innerText = "Click here to log out.";
+  } else {
+    linkElement.innerText = "Login Here";
+  }
+  const linkParagraph = document.createElement("p");
+  linkParagraph.appendChild(linkElement);
+  container.appendChild(linkParagraph);
+  return container;
+}
+
+/** Cursor for the next page of comments, or null once every page has been loaded. */
+let nextCommentCursor = null;
+
 /**
- * Fetches the current message board and fills UI with helper function.
+ * Fetches one page of the message board and fills UI with helper function.
+ * Each call continues from where the previous page ended.
  */
 function loadComments() {
   console.log("Loading Comments...");
-  fetch('/data').then(response => response.json()).then((arrComments) => {
+  let url = '/data';
+  if (nextCommentCursor) {
+    url += '?cursor=' + encodeURIComponent(nextCommentCursor);
+  }
+  fetch(url).then(response => response.json()).then((page) => {
     const messageContainer = document.getElementById("messageBoard");
     console.log("Building Message Board...");
-    arrComments.forEach((line) => {
+    page.comments.forEach((line) => {
       messageContainer.appendChild(createCommentElement(line));
     });
+    nextCommentCursor = page.cursor || null;
+    document.getElementById("more-comments").style.display =
+        nextCommentCursor ? "block" : "none";
   });
 }
 
@@ -14,7 +14,15 @@
 
 package com.google.sps.data;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
 /** An item on a todo list. */
+@JsonAdapter(Task.Adapter.class)
 public final class Task {
 
   private final long id;
@@ -26,4 +34,52 @@ public final class Task {
     this.title = title;
     this.timestamp = timestamp;
   }
+
+  /** Converts tasks to and from JSON field by field, without reflection. */
+  static final class Adapter extends TypeAdapter<Task> {
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+      if (task == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("id").value(task.id);
+      if (task.title != null) {
+        out.name("title").value(task.title);
+      }
+      out.name("timestamp").value(task.timestamp);
+      out.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      long id = 0;
+      String title = null;
+      long timestamp = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "id":
+            id = in.nextLong();
+            break;
+          case "title":
+            title = in.nextString();
+            break;
+          case "timestamp":
+            timestamp = in.nextLong();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Task(id, title, timestamp);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the version of the task list so unchanged lists can be answered with 304 Not Modified.
+ * Every servlet that changes tasks must call {@code bump()}.
+ *
+ * The version lives in memory, so it only sees changes made through this server instance. That
+ * matches how this example runs on the development server. The ETag includes an ID that is unique
+ * to this instance, so a tag handed out by another instance never matches.
+ */
+public final class TaskListVersion {
+
+  private static final String INSTANCE_ID = UUID.randomUUID().toString();
+  private static final AtomicLong version = new AtomicLong();
+
+  private TaskListVersion() {
+    // Disallow instances.
+  }
+
+  /** Records that the task list changed. */
+  public static void bump() {
+    version.incrementAndGet();
+  }
+
+  /** Returns the quoted ETag for the current version of the task list. */
+  public static String etag() {
+    return "\"" + INSTANCE_ID + "-" + version.get() + "\"";
+  }
+
+  /** Checks whether an If-None-Match header names {@code etag}. */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
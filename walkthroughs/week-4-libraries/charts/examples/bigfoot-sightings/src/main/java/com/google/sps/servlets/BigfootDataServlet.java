@@ -27,6 +27,8 @@ import javax.servlet.http.HttpServletResponse;
 @WebServlet("/bigfoot-data")
 public class BigfootDataServlet extends HttpServlet {
 
+  private static final Gson GSON = new Gson();
+
   private LinkedHashMap<Integer, Integer> bigfootSightings = new LinkedHashMap<>();
 
   @Override
@@ -48,8 +50,7 @@ public class BigfootDataServlet extends HttpServlet {
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     response.setContentType("application/json");
-    Gson gson = new Gson();
-    String json = gson.toJson(bigfootSightings);
-    response.getWriter().println(json);
+    response.setCharacterEncoding("UTF-8");
+    GSON.toJson(bigfootSightings, response.getWriter());
   }
 }
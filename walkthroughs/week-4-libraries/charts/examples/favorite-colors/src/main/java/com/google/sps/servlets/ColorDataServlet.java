@@ -28,14 +28,15 @@ import javax.servlet.http.HttpServletResponse;
 @WebServlet("/color-data")
 public class ColorDataServlet extends HttpServlet {
 
+  private static final Gson GSON = new Gson();
+
   private Map<String, Integer> colorVotes = new HashMap<>();
 
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     response.setContentType("application/json");
-    Gson gson = new Gson();
-    String json = gson.toJson(colorVotes);
-    response.getWriter().println(json);
+    response.setCharacterEncoding("UTF-8");
+    GSON.toJson(colorVotes, response.getWriter());
   }
 
   @Override
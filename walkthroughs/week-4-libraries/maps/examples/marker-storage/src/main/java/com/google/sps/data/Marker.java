@@ -14,7 +14,15 @@
 
 package com.google.sps.data;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
 /** Represents a marker on the map. */
+@JsonAdapter(Marker.Adapter.class)
 public class Marker {
 
   private final double lat;
@@ -38,4 +46,52 @@ public class Marker {
   public String getContent() {
     return content;
   }
+
+  /** Writes a marker's {@code content} only when it has some. */
+  static final class Adapter extends TypeAdapter<Marker> {
+    @Override
+    public void write(JsonWriter out, Marker marker) throws IOException {
+      if (marker == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("lat").value(marker.lat);
+      out.name("lng").value(marker.lng);
+      if (marker.content != null) {
+        out.name("content").value(marker.content);
+      }
+      out.endObject();
+    }
+
+    @Override
+    public Marker read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      double lat = 0;
+      double lng = 0;
+      String content = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "lat":
+            lat = in.nextDouble();
+            break;
+          case "lng":
+            lng = in.nextDouble();
+            break;
+          case "content":
+            content = in.nextString();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Marker(lat, lng, content);
+    }
+  }
 }
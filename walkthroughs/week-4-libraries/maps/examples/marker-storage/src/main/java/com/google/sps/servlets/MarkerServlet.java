@@ -35,16 +35,16 @@ import org.jsoup.safety.Whitelist;
 @WebServlet("/markers")
 public class MarkerServlet extends HttpServlet {
 
+  private static final Gson GSON = new Gson();
+
   /** Responds with a JSON array containing marker data. */
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
 
     Collection<Marker> markers = getMarkers();
-    Gson gson = new Gson();
-    String json = gson.toJson(markers);
-
-    response.getWriter().println(json);
+    GSON.toJson(markers, response.getWriter());
   }
 
   /** Accepts a POST request containing a new marker. */
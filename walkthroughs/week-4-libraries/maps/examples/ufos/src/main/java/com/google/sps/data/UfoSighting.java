@@ -14,7 +14,15 @@
 
 package com.google.sps.data;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
 /** Represents a UFO sighting at a specific lat lng point. */
+@JsonAdapter(UfoSighting.Adapter.class)
 public class UfoSighting {
   private double lat;
   private double lng;
@@ -23,4 +31,45 @@ public class UfoSighting {
     this.lat = lat;
     this.lng = lng;
   }
+
+  /** Writes a sighting as just its coordinates. */
+  static final class Adapter extends TypeAdapter<UfoSighting> {
+    @Override
+    public void write(JsonWriter out, UfoSighting sighting) throws IOException {
+      if (sighting == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("lat").value(sighting.lat);
+      out.name("lng").value(sighting.lng);
+      out.endObject();
+    }
+
+    @Override
+    public UfoSighting read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      double lat = 0;
+      double lng = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "lat":
+            lat = in.nextDouble();
+            break;
+          case "lng":
+            lng = in.nextDouble();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new UfoSighting(lat, lng);
+    }
+  }
 }
@@ -29,6 +29,8 @@ import javax.servlet.http.HttpServletResponse;
 @WebServlet("/ufo-data")
 public class UfoDataServlet extends HttpServlet {
 
+  private static final Gson GSON = new Gson();
+
   private Collection<UfoSighting> ufoSightings;
 
   @Override
@@ -51,8 +53,7 @@ public class UfoDataServlet extends HttpServlet {
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
     response.setContentType("application/json");
-    Gson gson = new Gson();
-    String json = gson.toJson(ufoSightings);
-    response.getWriter().println(json);
+    response.setCharacterEncoding("UTF-8");
+    GSON.toJson(ufoSightings, response.getWriter());
   }
 }
@@ -0,0 +1,153 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AttendeeDictionary gives every attendee name a small, dense int ID, so that events and meeting
+ * requests can hold their attendees as sorted {@code int[]}s instead of sets of strings. Each name
+ * is stored once however many events it appears in, the scheduler can keep per-attendee data in
+ * arrays indexed by ID, and checking two attendee lists for a shared attendee walks two int arrays
+ * instead of hashing strings.
+ *
+ * There is one dictionary for the whole process, and IDs are never reused. Only the attendees of
+ * events are given IDs; names that arrive in meeting requests are only looked up, so a client
+ * cannot grow the dictionary. Looking a name up does not lock; only adding a new one does.
+ */
+final class AttendeeDictionary {
+  private static final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+  // Guarded by the class lock for writes. A name is stored here before its ID is published in
+  // {@code idsByName}, so anyone who has an ID can read its name.
+  private static volatile String[] names = new String[64];
+  private static int size;
+
+  private AttendeeDictionary() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns the ID of {@code name}, giving it the next free ID if it has none yet.
+   */
+  static int idOf(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("attendee cannot be null");
+    }
+    Integer id = idsByName.get(name);
+    if (id != null) {
+      return id;
+    }
+
+    synchronized (AttendeeDictionary.class) {
+      id = idsByName.get(name);
+      if (id != null) {
+        return id;
+      }
+      if (size == names.length) {
+        names = Arrays.copyOf(names, size * 2);
+      }
+      names[size] = name;
+      idsByName.put(name, size);
+      return size++;
+    }
+  }
+
+  /**
+   * Returns the ID of {@code name}, or -1 if it has never been given one or is null.
+   */
+  static int lookup(String name) {
+    if (name == null) {
+      return -1;
+    }
+    Integer id = idsByName.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the name with ID {@code id}.
+   */
+  static String nameOf(int id) {
+    return names[id];
+  }
+
+  /**
+   * Returns the IDs of {@code attendees}, giving new names an ID, sorted and without duplicates.
+   */
+  static int[] idsOf(Collection<String> attendees) {
+    int[] ids = new int[attendees.size()];
+    int count = 0;
+    for (String attendee : attendees) {
+      ids[count++] = idOf(attendee);
+    }
+    return sortedDistinct(ids, count);
+  }
+
+  /**
+   * Returns the IDs of those of {@code attendees} that have one, sorted and without duplicates.
+   * Names that were never given an ID cannot be on any event, so they are left out.
+   */
+  static int[] lookupAll(Collection<String> attendees) {
+    int[] ids = new int[attendees.size()];
+    int count = 0;
+    for (String attendee : attendees) {
+      int id = lookup(attendee);
+      if (id >= 0) {
+        ids[count++] = id;
+      }
+    }
+    return sortedDistinct(ids, count);
+  }
+
+  /**
+   * Returns whether the sorted array {@code ids} holds {@code id}.
+   */
+  static boolean contains(int[] ids, int id) {
+    return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+  }
+
+  /**
+   * Returns whether the sorted arrays {@code a} and {@code b} share at least one ID. Walks both
+   * arrays once side by side.
+   */
+  static boolean intersects(int[] a, int[] b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        return true;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  private static int[] sortedDistinct(int[] ids, int count) {
+    Arrays.sort(ids, 0, count);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+        ids[distinct++] = ids[i];
+      }
+    }
+    return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * AttendeeSet is a read-only view of a sorted array of attendee IDs as a set of names. It lets
+ * {@code Event} keep handing out names while storing only IDs.
+ * Membership is a binary search over the IDs.
+ */
+final class AttendeeSet extends AbstractSet<String> {
+  private final int[] ids;
+
+  AttendeeSet(int[] ids) {
+    this.ids = ids;
+  }
+
+  @Override
+  public boolean contains(Object other) {
+    return other instanceof String
+        && AttendeeDictionary.contains(ids, AttendeeDictionary.lookup((String) other));
+  }
+
+  @Override
+  public int size() {
+    return ids.length;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < ids.length;
+      }
+
+      @Override
+      public String next() {
+        if (next == ids.length) {
+          throw new NoSuchElementException();
+        }
+        return AttendeeDictionary.nameOf(ids[next++]);
+      }
+    };
+  }
+}
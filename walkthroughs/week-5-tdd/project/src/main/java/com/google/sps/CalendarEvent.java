@@ -0,0 +1,130 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * CalendarEvent is an event on a calendar that spans more than one day, such as a week. It is
+ * the multi-day counterpart of {@code Event}, placed with an {@code EpochMinuteRange} instead of
+ * minutes within a day. An event may repeat according to a {@code Recurrence}, in which case
+ * {@code getWhen} is its first occurrence. Events are considered read-only.
+ */
+public final class CalendarEvent {
+  private final String title;
+  private final EpochMinuteRange when;
+  private final Set<String> attendees = new HashSet<>();
+  private final Recurrence recurrence;
+
+  /**
+   * Creates a new event.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time when the event takes place. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   */
+  public CalendarEvent(String title, EpochMinuteRange when, Collection<String> attendees) {
+    this(title, when, attendees, null);
+  }
+
+  /**
+   * Creates a new event that repeats.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time of the first occurrence. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   * @param recurrence How the event repeats, or null if it happens once.
+   */
+  public CalendarEvent(String title, EpochMinuteRange when, Collection<String> attendees,
+      Recurrence recurrence) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null. Use empty array instead.");
+    }
+
+    this.title = title;
+    this.when = when;
+    this.attendees.addAll(attendees);
+    this.recurrence = recurrence;
+  }
+
+  /**
+   * Returns the human-readable name for this event.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the {@code EpochMinuteRange} for when this event occurs, or first occurs if it repeats.
+   */
+  public EpochMinuteRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns a read-only set of required attendees for this event.
+   */
+  public Set<String> getAttendees() {
+    return Collections.unmodifiableSet(attendees);
+  }
+
+  /**
+   * Returns how this event repeats, or null if it happens once.
+   */
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  /**
+   * Returns the occurrences of this event that overlap {@code horizon}, in order. Occurrences of a
+   * repeating event are generated as the iterator is advanced.
+   */
+  public Iterator<EpochMinuteRange> occurrencesDuring(EpochMinuteRange horizon) {
+    if (recurrence != null) {
+      return recurrence.occurrences(when, horizon);
+    }
+    return when.overlaps(horizon)
+        ? Collections.singletonList(when).iterator()
+        : Collections.<EpochMinuteRange>emptyIterator();
+  }
+
+  @Override
+  public int hashCode() {
+    return title.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof CalendarEvent)) {
+      return false;
+    }
+    CalendarEvent that = (CalendarEvent) other;
+    return title.equals(that.title) && when.equals(that.when) && attendees.equals(that.attendees)
+        && Objects.equals(recurrence, that.recurrence);
+  }
+}
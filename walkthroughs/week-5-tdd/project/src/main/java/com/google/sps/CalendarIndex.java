@@ -0,0 +1,214 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CalendarIndex holds busy times across many days, bucketed by UTC day. Each day is an ordinary
+ * {@code EventIndex} over minutes of that day, and an event that crosses midnight is split across
+ * the days it touches. A query over a horizon only visits the buckets inside it, so asking about a
+ * week costs about seven single-day lookups however long the calendar is.
+ *
+ * Repeating events are not expanded into the day buckets, since there may be no end to them.
+ * Instead each attendee keeps a short list of their repeating events, and a query generates only
+ * the occurrences that fall inside its horizon. A weekly meeting costs a week's query one
+ * occurrence, however long ago it started or however far ahead it runs.
+ *
+ * The index also remembers each attendee's {@code WorkingHours}. Attendees without any are treated
+ * as available around the clock.
+ *
+ * Events can be added and removed after construction; the day indexes handle concurrent readers.
+ */
+public final class CalendarIndex {
+  // Longest horizon a query may cover, so that offsets within it fit in an int.
+  static final int MAX_HORIZON_DAYS = 366;
+
+  private static final int MINUTES_PER_DAY = EpochMinuteRange.MINUTES_PER_DAY;
+
+  private final Map<Long, EventIndex> days = new ConcurrentHashMap<>();
+  // Each attendee's repeating events by ID. Lists are replaced rather than changed, so readers can
+  // iterate them without locking.
+  private final Map<Integer, List<CalendarEvent>> recurring = new ConcurrentHashMap<>();
+  private final Map<String, WorkingHours> workingHours = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an empty index.
+   */
+  public CalendarIndex() {}
+
+  /**
+   * Creates an index holding every event in {@code events}.
+   */
+  public CalendarIndex(Collection<CalendarEvent> events) {
+    for (CalendarEvent event : events) {
+      add(event);
+    }
+  }
+
+  /**
+   * Adds {@code event} to the busy times of each of its attendees, on every day it touches. A
+   * repeating event is added once for all of its occurrences.
+   */
+  public synchronized void add(CalendarEvent event) {
+    if (event.getRecurrence() != null) {
+      for (String attendee : event.getAttendees()) {
+        int id = AttendeeDictionary.idOf(attendee);
+        List<CalendarEvent> events =
+            new ArrayList<>(recurring.getOrDefault(id, Collections.emptyList()));
+        events.add(event);
+        recurring.put(id, Collections.unmodifiableList(events));
+      }
+      return;
+    }
+
+    EpochMinuteRange when = event.getWhen();
+    for (long day = dayOf(when.start()); day * MINUTES_PER_DAY < when.end(); day++) {
+      days.computeIfAbsent(day, key -> new EventIndex()).add(pieceOn(day, event));
+    }
+  }
+
+  /**
+   * Removes one occurrence of {@code event} from each of its attendees, or every occurrence if it
+   * repeats. Returns whether anything was removed.
+   */
+  public synchronized boolean remove(CalendarEvent event) {
+    boolean removed = false;
+    if (event.getRecurrence() != null) {
+      for (String attendee : event.getAttendees()) {
+        int id = AttendeeDictionary.lookup(attendee);
+        List<CalendarEvent> events = recurring.get(id);
+        if (events == null || !events.contains(event)) {
+          continue;
+        }
+        List<CalendarEvent> remaining = new ArrayList<>(events);
+        remaining.remove(event);
+        if (remaining.isEmpty()) {
+          recurring.remove(id);
+        } else {
+          recurring.put(id, Collections.unmodifiableList(remaining));
+        }
+        removed = true;
+      }
+      return removed;
+    }
+
+    EpochMinuteRange when = event.getWhen();
+    for (long day = dayOf(when.start()); day * MINUTES_PER_DAY < when.end(); day++) {
+      EventIndex dayIndex = days.get(day);
+      if (dayIndex != null && dayIndex.remove(pieceOn(day, event))) {
+        removed = true;
+        if (dayIndex.isEmpty()) {
+          days.remove(day);
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Sets the working hours of {@code attendee}, or clears them if {@code hours} is null.
+   */
+  public void setWorkingHours(String attendee, WorkingHours hours) {
+    if (hours == null) {
+      workingHours.remove(attendee);
+    } else {
+      workingHours.put(attendee, hours);
+    }
+  }
+
+  /**
+   * Returns the working hours of {@code attendee}, or null if they have none.
+   */
+  public WorkingHours getWorkingHours(String attendee) {
+    return workingHours.get(attendee);
+  }
+
+  /**
+   * Appends to {@code out} every minute within {@code [from, from + length)} epoch minutes that one
+   * of {@code attendees} is busy or outside their working hours, as minutes relative to
+   * {@code from}. The appended intervals are not sorted or merged.
+   */
+  void appendBusyTimes(Collection<String> attendees, long from, int length, IntervalSet out) {
+    long to = from + length;
+    int[] ids = AttendeeDictionary.lookupAll(attendees);
+    IntervalSet dayBusyTimes = new IntervalSet();
+    for (long day = dayOf(from); day * MINUTES_PER_DAY < to; day++) {
+      EventIndex dayIndex = days.get(day);
+      if (dayIndex == null) {
+        continue;
+      }
+
+      dayBusyTimes.clear();
+      for (int attendee : ids) {
+        dayIndex.appendMergedBusyTimes(attendee, dayBusyTimes);
+      }
+      long shift = day * MINUTES_PER_DAY - from;
+      for (int i = 0; i < dayBusyTimes.size(); i++) {
+        long start = Math.max(0, dayBusyTimes.start(i) + shift);
+        long end = Math.min(length, dayBusyTimes.end(i) + shift);
+        if (start < end) {
+          out.add((int) start, (int) end);
+        }
+      }
+    }
+
+    EpochMinuteRange horizon = EpochMinuteRange.fromStartEnd(from, to);
+    for (int attendee : ids) {
+      for (CalendarEvent event : recurring.getOrDefault(attendee, Collections.emptyList())) {
+        Iterator<EpochMinuteRange> occurrences = event.occurrencesDuring(horizon);
+        while (occurrences.hasNext()) {
+          EpochMinuteRange occurrence = occurrences.next();
+          out.add((int) (Math.max(occurrence.start(), from) - from),
+              (int) (Math.min(occurrence.end(), to) - from));
+        }
+      }
+    }
+
+    IntervalSet working = new IntervalSet();
+    IntervalSet offHours = new IntervalSet();
+    for (String attendee : attendees) {
+      WorkingHours hours = workingHours.get(attendee);
+      if (hours == null) {
+        continue;
+      }
+      working.clear();
+      hours.appendWorkingTime(from, length, working);
+      working.complement(0, length, offHours);
+      out.addAll(offHours);
+    }
+  }
+
+  private static long dayOf(long epochMinute) {
+    return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+  }
+
+  /**
+   * Returns the part of {@code event} that falls on {@code day}, in minutes of that day.
+   */
+  private static Event pieceOn(long day, CalendarEvent event) {
+    long dayStart = day * MINUTES_PER_DAY;
+    int start = (int) (Math.max(event.getWhen().start(), dayStart) - dayStart);
+    int end = (int) (Math.min(event.getWhen().end(), dayStart + MINUTES_PER_DAY) - dayStart);
+    return new Event(event.getTitle(), TimeRange.fromStartEnd(start, end, false),
+        event.getAttendees());
+  }
+}
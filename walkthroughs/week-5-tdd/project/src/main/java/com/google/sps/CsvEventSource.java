@@ -0,0 +1,122 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * CsvEventSource reads events from a CSV file with one event per line:
+ *
+ *     title,start,duration,attendees
+ *
+ * where start and duration are in minutes of the day and attendees are separated by semicolons.
+ * Fields may be quoted with double quotes, with doubled quotes inside standing for one, but may not
+ * span lines. A first line that is exactly the header above is skipped, as are blank lines. The
+ * file is read one line at a time.
+ */
+public final class CsvEventSource implements EventSource {
+  static final String HEADER = "title,start,duration,attendees";
+
+  private final Path path;
+
+  /**
+   * Creates a source that reads the file at {@code path} each time it is asked for events.
+   */
+  public CsvEventSource(Path path) {
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+    this.path = path;
+  }
+
+  @Override
+  public void forEachEvent(Consumer<? super Event> sink) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      List<String> fields = new ArrayList<>(4);
+      int lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isEmpty() || (lineNumber == 1 && line.equals(HEADER))) {
+          continue;
+        }
+
+        Event event;
+        try {
+          splitFields(line, fields);
+          event = toEvent(fields);
+        } catch (IllegalArgumentException e) {
+          throw new IOException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+        }
+        sink.accept(event);
+      }
+    }
+  }
+
+  /**
+   * Splits one line into its fields, replacing the contents of {@code fields}.
+   */
+  static void splitFields(String line, List<String> fields) {
+    fields.clear();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+
+    if (quoted) {
+      throw new IllegalArgumentException("unterminated quoted field");
+    }
+    fields.add(field.toString());
+  }
+
+  private static Event toEvent(List<String> fields) {
+    if (fields.size() != 4) {
+      throw new IllegalArgumentException("expected 4 fields but found " + fields.size());
+    }
+
+    int start = Integer.parseInt(fields.get(1).trim());
+    int duration = Integer.parseInt(fields.get(2).trim());
+    String attendees = fields.get(3);
+    return new Event(fields.get(0), TimeRange.fromStartDuration(start, duration),
+        attendees.isEmpty() ? Collections.emptyList() : Arrays.asList(attendees.split(";")));
+  }
+}
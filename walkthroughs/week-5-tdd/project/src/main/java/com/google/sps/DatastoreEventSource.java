@@ -0,0 +1,94 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.appengine.api.datastore.DatastoreFailureException;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreTimeoutException;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Query;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * DatastoreEventSource reads events stored as {@code Event} entities with a {@code title}, a
+ * {@code start} and {@code duration} in minutes of the day, and a list of {@code attendees}.
+ * Entities are fetched in chunks as they are iterated, so the whole calendar is never held as
+ * entities at once.
+ *
+ * Run the app with {@code mvn appengine:run} to use the development server's local Datastore.
+ */
+public final class DatastoreEventSource implements EventSource {
+  public static final String KIND = "Event";
+
+  // Entities fetched per round trip while iterating.
+  private static final int CHUNK_SIZE = 500;
+
+  private final DatastoreService datastore;
+
+  /**
+   * Creates a source that queries {@code datastore} each time it is asked for events.
+   */
+  public DatastoreEventSource(DatastoreService datastore) {
+    if (datastore == null) {
+      throw new IllegalArgumentException("datastore cannot be null");
+    }
+    this.datastore = datastore;
+  }
+
+  @Override
+  public void forEachEvent(Consumer<? super Event> sink) throws IOException {
+    Query query = new Query(KIND);
+    try {
+      for (Entity entity :
+          datastore.prepare(query).asIterable(FetchOptions.Builder.withChunkSize(CHUNK_SIZE))) {
+        sink.accept(toEvent(entity));
+      }
+    } catch (DatastoreFailureException | DatastoreTimeoutException e) {
+      throw new IOException("Could not read events from Datastore", e);
+    }
+  }
+
+  /**
+   * Returns an entity holding {@code event}, in the form this source reads.
+   */
+  public static Entity toEntity(Event event) {
+    Entity entity = new Entity(KIND);
+    entity.setProperty("title", event.getTitle());
+    entity.setProperty("start", event.getWhen().start());
+    entity.setProperty("duration", event.getWhen().duration());
+    entity.setProperty("attendees", event.getAttendees());
+    return entity;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Event toEvent(Entity entity) throws IOException {
+    Object title = entity.getProperty("title");
+    Object start = entity.getProperty("start");
+    Object duration = entity.getProperty("duration");
+    if (!(title instanceof String) || !(start instanceof Long) || !(duration instanceof Long)) {
+      throw new IOException("Event entity " + entity.getKey() + " is missing fields");
+    }
+
+    // Datastore stores an empty list as null.
+    Collection<String> attendees = (Collection<String>) entity.getProperty("attendees");
+    return new Event((String) title,
+        TimeRange.fromStartDuration(((Long) start).intValue(), ((Long) duration).intValue()),
+        attendees == null ? Collections.emptyList() : attendees);
+  }
+}
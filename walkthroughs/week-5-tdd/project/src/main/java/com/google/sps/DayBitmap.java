@@ -0,0 +1,138 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * DayBitmap marks busy minutes of one day with one bit per minute: 1440 minutes fit in 23
+ * {@code long} words. Taking the union of many people's busy times is then a word-wise OR, and
+ * the time a group has in common is whatever is left clear, so no sorting or merging is needed.
+ *
+ * Minutes outside the day are ignored. Instances are mutable and not thread-safe.
+ */
+final class DayBitmap {
+  static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+  static final int WORDS = (MINUTES + 63) / 64;
+
+  private final long[] words = new long[WORDS];
+
+  /**
+   * Marks every minute free.
+   */
+  void clear() {
+    for (int i = 0; i < WORDS; i++) {
+      words[i] = 0L;
+    }
+  }
+
+  /**
+   * Marks the minutes in {@code [start, end)} busy.
+   */
+  void setRange(int start, int end) {
+    start = Math.max(start, 0);
+    end = Math.min(end, MINUTES);
+    if (start >= end) {
+      return;
+    }
+
+    int firstWord = start >>> 6;
+    int lastWord = (end - 1) >>> 6;
+    // Shifts only use the low six bits, so these masks select from start and up to end.
+    long firstMask = -1L << start;
+    long lastMask = -1L >>> -end;
+    if (firstWord == lastWord) {
+      words[firstWord] |= firstMask & lastMask;
+      return;
+    }
+
+    words[firstWord] |= firstMask;
+    for (int i = firstWord + 1; i < lastWord; i++) {
+      words[i] = -1L;
+    }
+    words[lastWord] |= lastMask;
+  }
+
+  /**
+   * Marks busy every interval packed in {@code packed} as {@code [start0, end0, start1, ...]}.
+   */
+  void setRanges(int[] packed) {
+    for (int i = 0; i < packed.length; i += 2) {
+      setRange(packed[i], packed[i + 1]);
+    }
+  }
+
+  /**
+   * Marks busy every minute that is busy in {@code other}.
+   */
+  void or(DayBitmap other) {
+    for (int i = 0; i < WORDS; i++) {
+      words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * Returns whether {@code minute} is busy.
+   */
+  boolean isBusy(int minute) {
+    return minute >= 0 && minute < MINUTES && (words[minute >>> 6] & (1L << minute)) != 0;
+  }
+
+  /**
+   * Appends to {@code out} every run of free minutes at least {@code minLength} long, in order.
+   */
+  void appendFreeRuns(long minLength, IntervalSet out) {
+    int minute = 0;
+    while (minute < MINUTES) {
+      int start = nextFree(minute);
+      if (start >= MINUTES) {
+        return;
+      }
+      int end = nextBusy(start);
+      if (end - start >= minLength) {
+        out.add(start, end);
+      }
+      minute = end;
+    }
+  }
+
+  /**
+   * Returns the first free minute at or after {@code from}, or {@code MINUTES} if there is none.
+   */
+  private int nextFree(int from) {
+    int index = from >>> 6;
+    long word = ~words[index] & (-1L << from);
+    while (word == 0) {
+      if (++index == WORDS) {
+        return MINUTES;
+      }
+      word = ~words[index];
+    }
+    return Math.min(MINUTES, index * 64 + Long.numberOfTrailingZeros(word));
+  }
+
+  /**
+   * Returns the first busy minute at or after {@code from}, or {@code MINUTES} if there is none.
+   */
+  private int nextBusy(int from) {
+    int index = from >>> 6;
+    long word = words[index] & (-1L << from);
+    while (word == 0) {
+      if (++index == WORDS) {
+        return MINUTES;
+      }
+      word = words[index];
+    }
+    return Math.min(MINUTES, index * 64 + Long.numberOfTrailingZeros(word));
+  }
+}
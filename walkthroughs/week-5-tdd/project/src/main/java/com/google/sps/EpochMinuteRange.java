@@ -0,0 +1,136 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Class representing a span of time that may cross days, counted in whole minutes since
+ * 1970-01-01T00:00Z. Like {@code TimeRange}, the start is included and the end is not. Being
+ * anchored to UTC, a range means the same moment for every attendee whatever their time zone.
+ */
+public final class EpochMinuteRange {
+  public static final int MINUTES_PER_DAY = 24 * 60;
+
+  /**
+   * A comparator for sorting ranges by their start time in ascending order.
+   */
+  public static final Comparator<EpochMinuteRange> ORDER_BY_START =
+      new Comparator<EpochMinuteRange>() {
+        @Override
+        public int compare(EpochMinuteRange a, EpochMinuteRange b) {
+          return Long.compare(a.start, b.start);
+        }
+      };
+
+  private final long start;
+  private final long end;
+
+  private EpochMinuteRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Creates a range from {@code start} up to but not including {@code end}, both in epoch minutes.
+   */
+  public static EpochMinuteRange fromStartEnd(long start, long end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end cannot come before start");
+    }
+    return new EpochMinuteRange(start, end);
+  }
+
+  /**
+   * Creates a range covering {@code start} to {@code end}, rounded down to whole minutes.
+   */
+  public static EpochMinuteRange between(Instant start, Instant end) {
+    return fromStartEnd(toEpochMinute(start), toEpochMinute(end));
+  }
+
+  /**
+   * Returns the whole minute containing {@code instant}, counted from the epoch.
+   */
+  public static long toEpochMinute(Instant instant) {
+    return Math.floorDiv(instant.getEpochSecond(), 60);
+  }
+
+  /**
+   * Returns the start of the range in epoch minutes.
+   */
+  public long start() {
+    return start;
+  }
+
+  /**
+   * Returns the end of the range in epoch minutes. This is the first minute after the range.
+   */
+  public long end() {
+    return end;
+  }
+
+  /**
+   * Returns the number of minutes in the range.
+   */
+  public long duration() {
+    return end - start;
+  }
+
+  /**
+   * Returns the moment the range starts.
+   */
+  public Instant startInstant() {
+    return Instant.ofEpochSecond(start * 60);
+  }
+
+  /**
+   * Returns the moment the range ends.
+   */
+  public Instant endInstant() {
+    return Instant.ofEpochSecond(end * 60);
+  }
+
+  /**
+   * Checks if two ranges share at least one minute.
+   */
+  public boolean overlaps(EpochMinuteRange other) {
+    return start < other.end && other.start < end;
+  }
+
+  /**
+   * Checks if {@code other} lies entirely within this range.
+   */
+  public boolean contains(EpochMinuteRange other) {
+    return start <= other.start && other.end <= end;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof EpochMinuteRange
+        && start == ((EpochMinuteRange) other).start
+        && end == ((EpochMinuteRange) other).end;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(start) * 31 + Long.hashCode(end);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Range: [%s, %s)", startInstant(), endInstant());
+  }
+}
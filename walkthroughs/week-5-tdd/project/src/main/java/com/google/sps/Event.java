@@ -14,20 +14,22 @@
 
 package com.google.sps;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.Comparator;
 
 /**
  * Event is the container class for when a specific group of people are meeting and are therefore
  * busy. Events are considered read-only.
+ *
+ * Attendees are stored as a sorted array of {@code AttendeeDictionary} IDs rather than a set of
+ * names, so the same name on many events is only stored once.
  */
 public final class Event {
   private final String title;
   private final TimeRange when;
-  private final Set<String> attendees = new HashSet<>();
+  private final int[] attendeeIds;
 
   /**
    * A comparator for sorting events by their start time in ascending order.
@@ -61,7 +63,7 @@ public final class Event {
 
     this.title = title;
     this.when = when;
-    this.attendees.addAll(attendees);
+    this.attendeeIds = AttendeeDictionary.idsOf(attendees);
   }
 
   /**
@@ -82,9 +84,15 @@ public final class Event {
    * Returns a read-only set of required attendees for this event.
    */
   public Set<String> getAttendees() {
-    // Return the attendees as an unmodifiable set so that the caller can't change our
-    // internal data.
-    return Collections.unmodifiableSet(attendees);
+    // Return a read-only view so that the caller can't change our internal data.
+    return new AttendeeSet(attendeeIds);
+  }
+
+  /**
+   * Returns the sorted IDs of the attendees. The array must not be modified.
+   */
+  int[] attendeeIds() {
+    return attendeeIds;
   }
 
   @Override
@@ -100,8 +108,8 @@ public final class Event {
   }
 
   private static boolean equals(Event a, Event b) {
-    // {@code attendees} must be a set for equals to work as expected. According to the {@code Set}
-    // interface documentation, equals will check for set-equality across all set implementations.
-    return a.title.equals(b.title) && a.when.equals(b.when) && a.attendees.equals(b.attendees);
+    // The IDs are sorted and distinct, so equal arrays mean equal sets of attendees.
+    return a.title.equals(b.title) && a.when.equals(b.when)
+        && Arrays.equals(a.attendeeIds, b.attendeeIds);
   }
 }
@@ -0,0 +1,103 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * EventCatalog holds the current {@code EventSnapshot} of a source and reloads it on request or on
+ * a schedule. A reload builds a complete new snapshot off to the side and then swaps it in with a
+ * single write, so queries keep using the old calendar until the new one is ready and never see a
+ * half-loaded one. A reload that fails leaves the current snapshot in place.
+ */
+public final class EventCatalog {
+  private static final Logger logger = Logger.getLogger(EventCatalog.class.getName());
+
+  private final EventSource source;
+  // Held for a whole reload, so an earlier, slower reload cannot replace the result of a later one.
+  private final Object reloadLock = new Object();
+  private volatile EventSnapshot current;
+  private ScheduledExecutorService reloader;
+
+  /**
+   * Creates a catalog and loads its first snapshot from {@code source}.
+   */
+  public EventCatalog(EventSource source) throws IOException {
+    if (source == null) {
+      throw new IllegalArgumentException("source cannot be null");
+    }
+    this.source = source;
+    this.current = EventSnapshot.load(source);
+  }
+
+  /**
+   * Returns the most recently loaded snapshot.
+   */
+  public EventSnapshot current() {
+    return current;
+  }
+
+  /**
+   * Loads a new snapshot from the source and makes it current once it is complete.
+   */
+  public void reload() throws IOException {
+    synchronized (reloadLock) {
+      current = EventSnapshot.load(source);
+    }
+  }
+
+  /**
+   * Reloads the catalog every {@code period} on a background thread until {@code stopReloading}
+   * is called. Failed reloads are logged and retried at the next period.
+   */
+  public synchronized void startReloading(long period, TimeUnit unit) {
+    if (period <= 0) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    if (reloader != null) {
+      throw new IllegalStateException("already reloading");
+    }
+
+    reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "event-catalog-reload");
+      thread.setDaemon(true);
+      return thread;
+    });
+    reloader.scheduleWithFixedDelay(this::reloadQuietly, period, period, unit);
+  }
+
+  /**
+   * Stops the background reloads started by {@code startReloading}, if any.
+   */
+  public synchronized void stopReloading() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+      reloader = null;
+    }
+  }
+
+  private void reloadQuietly() {
+    try {
+      reload();
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Could not reload events; keeping the current ones.", e);
+    }
+  }
+}
@@ -0,0 +1,640 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * EventIndex keeps, for every attendee, the time ranges of the events they attend sorted by start
+ * time. Building it costs one pass over the events; afterwards a scheduling query only has to look
+ * at the busy times of the people it is actually about.
+ *
+ * Each attendee's busy times are stored packed in an {@code int[]} the way {@code IntervalSet}
+ * packs them, so a query can copy them straight into its working set. Schedules are kept in a
+ * small open-addressing table keyed by {@code AttendeeDictionary} ID, so finding one costs a
+ * probe of an int array rather than hashing the attendee's name. The table is sized by the
+ * attendees in this index, not by how many IDs the dictionary has given out.
+ *
+ * Each attendee's busy times are also kept merged into disjoint blocks, which is their free time
+ * seen from the other side. Adding or removing an event does not merge all of them again: the
+ * blocks a new event overlaps are found by binary search and joined, and a removed event only
+ * re-merges the events of the one block it belonged to. Asking for an attendee's free time is
+ * then just a read of their blocks.
+ *
+ * Next to the array, each attendee's busy minutes are cached as a {@code DayBitmap}, built the
+ * first time a query asks for it and then kept up to date as events are added. Queries over many
+ * attendees can OR these bitmaps together instead of sorting and merging all of their intervals.
+ *
+ * The index also remembers the free time of the last {@code GROUP_CACHE_SIZE} attendee groups it
+ * was asked about, keyed by the group's sorted IDs, so a query repeated with the same people and a
+ * different duration or optional attendees does not combine their schedules again. An add or
+ * remove only forgets the groups that include one of the event's attendees, which takes one pass
+ * over the cached groups.
+ *
+ * Events can be added and removed after construction. Each attendee's schedule is replaced rather
+ * than modified in place, so readers never need to lock and always see a consistent schedule.
+ * The price is that every add or remove copies the arrays of each attendee it touches, so it
+ * costs time linear in that attendee's events for the day rather than logarithmic. A tree of
+ * blocks would update in logarithmic time but need readers to lock or rebuild arrays from it. An
+ * index covers one day, so an attendee has at most a few hundred blocks, and copying them is
+ * cheaper than either. Updates are rare next to the queries that read the arrays.
+ */
+public final class EventIndex {
+  private static final Schedule NOT_BUSY = new Schedule(new int[0]);
+
+  // Most attendee groups whose free time is remembered at once; the least recently used goes first.
+  static final int GROUP_CACHE_SIZE = 256;
+
+  // Each attendee's schedule by ID, or null if they are not busy. Only writers, who hold the
+  // index's lock, set elements or swap in a longer copy, so readers never lock.
+  private volatile ScheduleTable schedules = new ScheduleTable(16);
+
+  // The number of non-null schedules.
+  private volatile int busyAttendees;
+
+  // Free time of recently queried groups. Guarded by its own lock, as is {@code generation}.
+  private final Map<Group, int[]> freeTimesByGroup =
+      new LinkedHashMap<Group, int[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Group, int[]> eldest) {
+          return size() > GROUP_CACHE_SIZE;
+        }
+      };
+
+  // Bumped on every change, so free time worked out from older schedules is never cached.
+  private long generation;
+
+  /**
+   * Creates an empty index.
+   */
+  public EventIndex() {}
+
+  /**
+   * Creates an index holding every event in {@code events}.
+   */
+  public EventIndex(Collection<Event> events) {
+    Builder builder = new Builder();
+    for (Event event : events) {
+      builder.add(event);
+    }
+    builder.fill(this);
+  }
+
+  /**
+   * Adds {@code event} to the busy times of each of its attendees.
+   */
+  public synchronized void add(Event event) {
+    int start = event.getWhen().start();
+    int end = event.getWhen().end();
+    for (int attendee : event.attendeeIds()) {
+      int[] current = schedule(attendee).busyTimes;
+      int position = insertionPoint(current, start, end);
+
+      int[] updated = new int[current.length + 2];
+      System.arraycopy(current, 0, updated, 0, position);
+      updated[position] = start;
+      updated[position + 1] = end;
+      System.arraycopy(current, position, updated, position + 2, current.length - position);
+
+      Schedule previous = schedule(attendee);
+      DayBitmap busyMinutes = null;
+      if (previous.busyMinutes != null) {
+        busyMinutes = new DayBitmap();
+        busyMinutes.or(previous.busyMinutes);
+        busyMinutes.setRange(start, end);
+      }
+      setSchedule(attendee, new Schedule(
+          updated, mergeInto(previous.mergedBusyTimes(), start, end), busyMinutes));
+    }
+    forgetGroups(event.attendeeIds());
+  }
+
+  /**
+   * Removes one occurrence of {@code event}'s time range from each of its attendees. Returns
+   * whether anything was removed.
+   */
+  public synchronized boolean remove(Event event) {
+    int start = event.getWhen().start();
+    int end = event.getWhen().end();
+    boolean removed = false;
+    for (int attendee : event.attendeeIds()) {
+      int[] current = schedule(attendee).busyTimes;
+      int position = indexOf(current, start, end);
+      if (position < 0) {
+        continue;
+      }
+
+      if (current.length == 2) {
+        setSchedule(attendee, null);
+      } else {
+        int[] updated = new int[current.length - 2];
+        System.arraycopy(current, 0, updated, 0, position);
+        System.arraycopy(current, position + 2, updated, position, current.length - position - 2);
+        int[] merged = splitOut(schedule(attendee).mergedBusyTimes(), updated, start, end);
+        setSchedule(attendee, new Schedule(updated, merged, null));
+      }
+      removed = true;
+    }
+    if (removed) {
+      forgetGroups(event.attendeeIds());
+    }
+    return removed;
+  }
+
+  /**
+   * Returns a read-only list of the times {@code attendee} is busy, sorted by start time.
+   */
+  public List<TimeRange> busyTimes(String attendee) {
+    int[] packed = schedule(AttendeeDictionary.lookup(attendee)).busyTimes;
+    List<TimeRange> busyTimes = new ArrayList<>(packed.length / 2);
+    for (int i = 0; i < packed.length; i += 2) {
+      busyTimes.add(TimeRange.fromStartEnd(packed[i], packed[i + 1], false));
+    }
+    return Collections.unmodifiableList(busyTimes);
+  }
+
+  /**
+   * Returns a read-only list of the times {@code attendee} is free, sorted by start time.
+   */
+  public List<TimeRange> freeTimes(String attendee) {
+    int[] merged = schedule(AttendeeDictionary.lookup(attendee)).mergedBusyTimes();
+    List<TimeRange> freeTimes = new ArrayList<>(merged.length / 2 + 1);
+    int cursor = TimeRange.WHOLE_DAY.start();
+    for (int i = 0; i <= merged.length; i += 2) {
+      int end = i < merged.length ? merged[i] : TimeRange.WHOLE_DAY.end();
+      if (cursor < end) {
+        freeTimes.add(TimeRange.fromStartEnd(cursor, end, false));
+      }
+      if (i < merged.length) {
+        cursor = merged[i + 1];
+      }
+    }
+    return Collections.unmodifiableList(freeTimes);
+  }
+
+  /**
+   * Returns whether no attendee has any busy time.
+   */
+  public boolean isEmpty() {
+    return busyAttendees == 0;
+  }
+
+  /**
+   * Appends the busy times of the attendee with ID {@code attendee} to {@code out}, with
+   * overlapping and touching events already merged.
+   */
+  void appendMergedBusyTimes(int attendee, IntervalSet out) {
+    int[] packed = schedule(attendee).mergedBusyTimes();
+    out.addAll(packed, 0, packed.length / 2);
+  }
+
+  /**
+   * Marks the busy minutes of the attendee with ID {@code attendee} in {@code out}, on top of what
+   * it already holds.
+   */
+  void orBusyMinutes(int attendee, DayBitmap out) {
+    out.or(schedule(attendee).busyMinutes());
+  }
+
+  /**
+   * Returns the number of changes made to the index so far. Pass it to {@code cacheFreeTimes}
+   * along with free time worked out after reading it.
+   */
+  long generation() {
+    synchronized (freeTimesByGroup) {
+      return generation;
+    }
+  }
+
+  /**
+   * Returns the cached free time of {@code group} packed as start/end pairs, or null if it is not
+   * cached. The array must not be modified.
+   */
+  int[] cachedFreeTimes(Group group) {
+    synchronized (freeTimesByGroup) {
+      return freeTimesByGroup.get(group);
+    }
+  }
+
+  /**
+   * Caches {@code freeTimes} for {@code group}, unless the index has changed since
+   * {@code generation} was read.
+   */
+  void cacheFreeTimes(Group group, int[] freeTimes, long generation) {
+    synchronized (freeTimesByGroup) {
+      if (this.generation == generation) {
+        freeTimesByGroup.put(group, freeTimes);
+      }
+    }
+  }
+
+  /**
+   * Forgets the cached free time of every group that includes one of {@code attendees}, which
+   * must be sorted IDs.
+   */
+  private void forgetGroups(int[] attendees) {
+    synchronized (freeTimesByGroup) {
+      generation++;
+      freeTimesByGroup.keySet()
+          .removeIf(group -> AttendeeDictionary.intersects(group.ids, attendees));
+    }
+  }
+
+  /**
+   * Returns the schedule of the attendee with ID {@code attendee}, which is empty if they are not
+   * busy or have no ID.
+   */
+  private Schedule schedule(int attendee) {
+    Schedule schedule = schedules.get(attendee);
+    return schedule == null ? NOT_BUSY : schedule;
+  }
+
+  /**
+   * Replaces the schedule of the attendee with ID {@code attendee}. Callers must hold the index's
+   * lock or be its constructor.
+   */
+  private void setSchedule(int attendee, Schedule schedule) {
+    ScheduleTable current = schedules;
+    int slot = current.slotOf(attendee);
+    if (slot < 0) {
+      if (schedule == null) {
+        return;
+      }
+      if (current.isFull()) {
+        current = current.grown();
+        schedules = current;
+      }
+      slot = current.claim(attendee);
+    }
+
+    Schedule previous = current.schedules.getAndSet(slot, schedule);
+    if (previous == null && schedule != null) {
+      busyAttendees++;
+    } else if (previous != null && schedule == null) {
+      busyAttendees--;
+    }
+  }
+
+  /**
+   * Returns {@code merged} with {@code [start, end)} added, joined with the blocks it overlaps or
+   * touches. Blocks before and after are copied as they are.
+   */
+  private static int[] mergeInto(int[] merged, int start, int end) {
+    if (end <= start) {
+      return merged;
+    }
+    // Blocks are disjoint and sorted, so their ends are sorted too. Blocks [first, last) are the
+    // ones that end at or after {@code start} and start at or before {@code end}.
+    int first = firstBlock(merged, 1, start - 1);
+    int last = firstBlock(merged, 0, end);
+    if (first < last) {
+      start = Math.min(start, merged[2 * first]);
+      end = Math.max(end, merged[2 * last - 1]);
+    }
+
+    int[] updated = new int[merged.length - 2 * (last - first) + 2];
+    System.arraycopy(merged, 0, updated, 0, 2 * first);
+    updated[2 * first] = start;
+    updated[2 * first + 1] = end;
+    System.arraycopy(merged, 2 * last, updated, 2 * first + 2, merged.length - 2 * last);
+    return updated;
+  }
+
+  /**
+   * Returns {@code merged} with {@code [start, end)} taken out, given {@code busyTimes}, the sorted
+   * busy times that remain. Only the block that held the range is merged again from the busy times
+   * inside it, since other events may still cover parts of it.
+   */
+  private static int[] splitOut(int[] merged, int[] busyTimes, int start, int end) {
+    if (end <= start) {
+      return merged;
+    }
+    int block = firstBlock(merged, 1, start);
+    int blockStart = merged[2 * block];
+    int blockEnd = merged[2 * block + 1];
+
+    // Busy times that overlap the block cannot start before it, or they would have joined it.
+    int low = firstBlock(busyTimes, 0, blockStart - 1);
+    int high = firstBlock(busyTimes, 0, blockEnd - 1);
+    IntervalSet remerged = new IntervalSet(high - low);
+    remerged.addAll(busyTimes, 2 * low, high - low);
+    remerged.merge();
+
+    int[] updated = new int[merged.length - 2 + 2 * remerged.size()];
+    System.arraycopy(merged, 0, updated, 0, 2 * block);
+    for (int i = 0; i < remerged.size(); i++) {
+      updated[2 * (block + i)] = remerged.start(i);
+      updated[2 * (block + i) + 1] = remerged.end(i);
+    }
+    System.arraycopy(merged, 2 * block + 2, updated, 2 * (block + remerged.size()),
+        merged.length - 2 * block - 2);
+    return updated;
+  }
+
+  /**
+   * Returns the first interval in {@code packed} whose start ({@code side} 0) or end
+   * ({@code side} 1) is greater than {@code value}, which must be sorted on that side.
+   */
+  private static int firstBlock(int[] packed, int side, int value) {
+    int low = 0;
+    int high = packed.length / 2;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (packed[2 * mid + side] <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the array offset at which {@code [start, end)} keeps {@code packed} sorted.
+   */
+  private static int insertionPoint(int[] packed, int start, int end) {
+    int low = 0;
+    int high = packed.length / 2;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int midStart = packed[2 * mid];
+      if (midStart < start || (midStart == start && packed[2 * mid + 1] <= end)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return 2 * low;
+  }
+
+  /**
+   * Returns the array offset of {@code [start, end)} in {@code packed}, or -1 if it is absent.
+   */
+  private static int indexOf(int[] packed, int start, int end) {
+    // Binary search for the first interval starting at {@code start}, then scan its ties.
+    int low = 0;
+    int high = packed.length / 2;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (packed[2 * mid] < start) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    for (int i = 2 * low; i < packed.length && packed[i] == start; i += 2) {
+      if (packed[i + 1] == end) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Collects events one at a time, for example as they are read from an {@code EventSource}, and
+   * then builds an index of them. Only the busy times are kept, never the events themselves. Each
+   * attendee's ranges are collected first so every array is sorted once instead of per insert.
+   */
+  static final class Builder {
+    // Each attendee's busy times by ID.
+    private final Map<Integer, IntervalSet> collected = new HashMap<>();
+
+    /**
+     * Adds the busy times of {@code event} to the index being built.
+     */
+    void add(Event event) {
+      TimeRange when = event.getWhen();
+      for (int attendee : event.attendeeIds()) {
+        collected.computeIfAbsent(attendee, id -> new IntervalSet(1))
+            .add(when.start(), when.end());
+      }
+    }
+
+    /**
+     * Returns a new index holding every event added so far.
+     */
+    EventIndex build() {
+      EventIndex index = new EventIndex();
+      fill(index);
+      return index;
+    }
+
+    private void fill(EventIndex index) {
+      // Size the table for every attendee up front, so it is only allocated once.
+      index.schedules = new ScheduleTable(ScheduleTable.capacityFor(collected.size()));
+      for (Map.Entry<Integer, IntervalSet> entry : collected.entrySet()) {
+        IntervalSet busyTimes = entry.getValue();
+        busyTimes.sort();
+        index.setSchedule(entry.getKey(), new Schedule(busyTimes.toPackedArray()));
+      }
+    }
+  }
+
+  /**
+   * The key under which a group's free time is cached: the group's attendee IDs, sorted and
+   * without duplicates, so the same people in any order share a key.
+   */
+  static final class Group {
+    private final int[] ids;
+    private final int hash;
+
+    /**
+     * Creates the key of the attendees with IDs {@code ids}, which must be sorted and distinct and
+     * must not be modified afterwards.
+     */
+    Group(int[] ids) {
+      this.ids = ids;
+      this.hash = Arrays.hashCode(ids);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Group && Arrays.equals(ids, ((Group) other).ids);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Schedules by attendee ID, in an open-addressing table with linear probing. Only writers, who
+   * hold the index's lock, claim slots or swap in a larger table, so readers never lock. A slot's
+   * ID is published before its schedule, and a reader that finds the ID without a schedule treats
+   * the attendee as not busy, as it would have a moment earlier. IDs stay in their slots when
+   * their schedules are removed, until the table is next grown.
+   */
+  private static final class ScheduleTable {
+    private static final int EMPTY = -1;
+
+    final AtomicIntegerArray ids;
+    final AtomicReferenceArray<Schedule> schedules;
+    // The number of claimed slots. Only touched by writers.
+    private int used;
+
+    /**
+     * Creates an empty table with {@code capacity} slots, which must be a power of two.
+     */
+    ScheduleTable(int capacity) {
+      ids = new AtomicIntegerArray(capacity);
+      schedules = new AtomicReferenceArray<>(capacity);
+      for (int i = 0; i < capacity; i++) {
+        ids.set(i, EMPTY);
+      }
+    }
+
+    /**
+     * Returns the smallest capacity that holds {@code attendees} without being full.
+     */
+    static int capacityFor(int attendees) {
+      int capacity = 16;
+      while (attendees * 4 >= capacity * 3) {
+        capacity *= 2;
+      }
+      return capacity;
+    }
+
+    /**
+     * Returns the schedule of the attendee with ID {@code id}, or null if they have none.
+     */
+    Schedule get(int id) {
+      int slot = slotOf(id);
+      return slot < 0 ? null : schedules.get(slot);
+    }
+
+    /**
+     * Returns the slot holding {@code id}, or -1 if it has none.
+     */
+    int slotOf(int id) {
+      if (id < 0) {
+        return -1;
+      }
+      int mask = ids.length() - 1;
+      for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+        int found = ids.get(slot);
+        if (found == id) {
+          return slot;
+        } else if (found == EMPTY) {
+          return -1;
+        }
+      }
+    }
+
+    /**
+     * Returns whether claiming another slot would leave the table too full to probe quickly.
+     */
+    boolean isFull() {
+      return (used + 1) * 4 >= ids.length() * 3;
+    }
+
+    /**
+     * Claims a free slot for {@code id}, which must not have one, and returns it.
+     */
+    int claim(int id) {
+      int mask = ids.length() - 1;
+      int slot = hash(id) & mask;
+      while (ids.get(slot) != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      ids.set(slot, id);
+      used++;
+      return slot;
+    }
+
+    /**
+     * Returns a larger copy holding only the attendees that still have a schedule.
+     */
+    ScheduleTable grown() {
+      int busy = 0;
+      for (int i = 0; i < ids.length(); i++) {
+        if (schedules.get(i) != null) {
+          busy++;
+        }
+      }
+      ScheduleTable grown = new ScheduleTable(capacityFor(busy + 1));
+      for (int i = 0; i < ids.length(); i++) {
+        Schedule schedule = schedules.get(i);
+        if (schedule != null) {
+          grown.schedules.set(grown.claim(ids.get(i)), schedule);
+        }
+      }
+      return grown;
+    }
+
+    private static int hash(int id) {
+      int h = id * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+
+  /**
+   * One attendee's busy times. A schedule is never changed once it is in the index; its merged
+   * times and bitmap are built lazily, and building them twice in a race is harmless because both
+   * copies are equal.
+   */
+  private static final class Schedule {
+    final int[] busyTimes;
+    private volatile int[] mergedBusyTimes;
+    private volatile DayBitmap busyMinutes;
+
+    Schedule(int[] busyTimes) {
+      this.busyTimes = busyTimes;
+    }
+
+    /**
+     * Creates a schedule whose merged times are already known, and its bitmap too unless
+     * {@code busyMinutes} is null.
+     */
+    Schedule(int[] busyTimes, int[] mergedBusyTimes, DayBitmap busyMinutes) {
+      this.busyTimes = busyTimes;
+      this.mergedBusyTimes = mergedBusyTimes;
+      this.busyMinutes = busyMinutes;
+    }
+
+    int[] mergedBusyTimes() {
+      int[] merged = mergedBusyTimes;
+      if (merged == null) {
+        // The busy times are already sorted, so merging is a single pass.
+        IntervalSet busy = new IntervalSet(busyTimes.length / 2);
+        busy.addAll(busyTimes, 0, busyTimes.length / 2);
+        busy.merge();
+        merged = busy.toPackedArray();
+        mergedBusyTimes = merged;
+      }
+      return merged;
+    }
+
+    DayBitmap busyMinutes() {
+      DayBitmap bitmap = busyMinutes;
+      if (bitmap == null) {
+        bitmap = new DayBitmap();
+        bitmap.setRanges(busyTimes);
+        busyMinutes = bitmap;
+      }
+      return bitmap;
+    }
+  }
+}
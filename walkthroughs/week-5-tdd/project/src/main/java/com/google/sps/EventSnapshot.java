@@ -0,0 +1,230 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * EventSnapshot is the calendar as read from an {@code EventSource} at one moment: its events and
+ * the index of their busy times, built together in a single pass over the source. A snapshot is
+ * not changed once loaded; reloading the calendar builds a new one.
+ *
+ * The events are kept sorted by start time, in a {@code TimeRangeIndex} over their times, and for
+ * each attendee the snapshot keeps the positions of their events in that order. {@code find} uses
+ * these to list the events of some attendees in a time window without looking at anybody else's
+ * events or at events outside the window.
+ */
+public final class EventSnapshot {
+  private final List<Event> events;
+  // The IDs of everyone on an event in the snapshot, sorted, and the positions of their events.
+  private final int[] attendeeIds;
+  private final int[][] positionsByAttendee;
+  private final TimeRangeIndex times;
+  private final EventIndex index;
+  private final long fingerprint;
+
+  private EventSnapshot(List<Event> events, EventIndex index) {
+    this.events = Collections.unmodifiableList(events);
+    this.index = index;
+    this.fingerprint = fingerprintOf(events);
+
+    // Gather who attends anything, then count each attendee's events, so every position array is
+    // allocated at its final size and nothing is sized by IDs that are not in this snapshot.
+    int total = 0;
+    List<TimeRange> whens = new ArrayList<>(events.size());
+    for (Event event : events) {
+      whens.add(event.getWhen());
+      total += event.attendeeIds().length;
+    }
+    this.times = new TimeRangeIndex(whens);
+
+    int[] ids = new int[total];
+    total = 0;
+    for (Event event : events) {
+      for (int attendee : event.attendeeIds()) {
+        ids[total++] = attendee;
+      }
+    }
+    Arrays.sort(ids);
+    int distinct = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+        ids[distinct++] = ids[i];
+      }
+    }
+    this.attendeeIds = Arrays.copyOf(ids, distinct);
+
+    int[] counts = new int[distinct];
+    for (Event event : events) {
+      for (int attendee : event.attendeeIds()) {
+        counts[Arrays.binarySearch(attendeeIds, attendee)]++;
+      }
+    }
+    this.positionsByAttendee = new int[distinct][];
+    for (int a = 0; a < distinct; a++) {
+      positionsByAttendee[a] = new int[counts[a]];
+      counts[a] = 0;
+    }
+    for (int i = 0; i < events.size(); i++) {
+      for (int attendee : events.get(i).attendeeIds()) {
+        int a = Arrays.binarySearch(attendeeIds, attendee);
+        positionsByAttendee[a][counts[a]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Reads every event from {@code source} and indexes it as it arrives.
+   */
+  public static EventSnapshot load(EventSource source) throws IOException {
+    List<Event> events = new ArrayList<>();
+    EventIndex.Builder index = new EventIndex.Builder();
+    source.forEachEvent(event -> {
+      events.add(event);
+      index.add(event);
+    });
+    // The sort is stable, so events that start together keep the order the source gave them.
+    events.sort(Event.ORDER_BY_START_TIME);
+    return new EventSnapshot(events, index.build());
+  }
+
+  /**
+   * Returns a read-only list of the events, sorted by start time.
+   */
+  public List<Event> getEvents() {
+    return events;
+  }
+
+  /**
+   * Returns a hash of the events in order. Snapshots loaded from the same calendar have the same
+   * fingerprint, on any server, so it tells whether positions in one still mean the same events
+   * in another.
+   */
+  public long fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Returns the index of the events' busy times. Callers must not add or remove events.
+   */
+  public EventIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Finds the events that overlap {@code window} and are attended by at least one of
+   * {@code attendees}, or by anyone if {@code attendees} is empty.
+   *
+   * @param attendees The people whose events are wanted.
+   * @param window The time the events must overlap.
+   * @param from The first position in {@code getEvents()} to consider, for resuming a listing.
+   * @param limit The most positions to return.
+   * @return The positions of the matching events in {@code getEvents()}, in ascending order.
+   */
+  public int[] find(Collection<String> attendees, TimeRange window, int from, int limit) {
+    if (attendees.isEmpty()) {
+      return times.overlapping(window.start(), window.end(), from, limit);
+    }
+
+    // Events are sorted by start, so the matches lie between the first event to overlap the
+    // window and the first to start after it.
+    int low = times.firstOverlapping(window.start(), window.end(), from);
+    int high = firstStartingAtOrAfter(window.end());
+
+    int[] found = new int[Math.max(0, Math.min(limit, high - low))];
+    int count = 0;
+
+    // Walk each attendee's positions side by side, taking the smallest each time so every event
+    // is seen once and in order even when several of the attendees share it.
+    List<int[]> lists = new ArrayList<>(attendees.size());
+    for (int attendee : AttendeeDictionary.lookupAll(attendees)) {
+      int a = Arrays.binarySearch(attendeeIds, attendee);
+      if (a >= 0) {
+        lists.add(positionsByAttendee[a]);
+      }
+    }
+    int[] cursors = new int[lists.size()];
+    for (int l = 0; l < lists.size(); l++) {
+      cursors[l] = lowerBound(lists.get(l), low);
+    }
+
+    while (count < found.length) {
+      int next = high;
+      for (int l = 0; l < lists.size(); l++) {
+        int[] positions = lists.get(l);
+        if (cursors[l] < positions.length) {
+          next = Math.min(next, positions[cursors[l]]);
+        }
+      }
+      if (next >= high) {
+        break;
+      }
+
+      for (int l = 0; l < lists.size(); l++) {
+        int[] positions = lists.get(l);
+        if (cursors[l] < positions.length && positions[cursors[l]] == next) {
+          cursors[l]++;
+        }
+      }
+      if (events.get(next).getWhen().overlaps(window)) {
+        found[count++] = next;
+      }
+    }
+    return Arrays.copyOf(found, count);
+  }
+
+  /**
+   * Returns the position of the first event starting at or after {@code minute}.
+   */
+  private int firstStartingAtOrAfter(int minute) {
+    int low = 0;
+    int high = events.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (events.get(mid).getWhen().start() < minute) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int lowerBound(int[] positions, int value) {
+    int index = Arrays.binarySearch(positions, value);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  private static long fingerprintOf(List<Event> events) {
+    long hash = 17;
+    for (Event event : events) {
+      hash = 31 * hash + event.getTitle().hashCode();
+      hash = 31 * hash + event.getWhen().start();
+      hash = 31 * hash + event.getWhen().end();
+      // Attendee IDs, and so their order, differ between servers, so add up the names' hashes.
+      long attendees = 0;
+      for (int attendee : event.attendeeIds()) {
+        attendees += AttendeeDictionary.nameOf(attendee).hashCode();
+      }
+      hash = 31 * hash + attendees;
+    }
+    return hash;
+  }
+}
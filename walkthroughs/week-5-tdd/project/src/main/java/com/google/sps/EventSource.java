@@ -0,0 +1,43 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * EventSource is where the calendar's events come from, such as a file or Datastore. A source
+ * hands its events over one at a time, so a large calendar can be indexed as it is read instead of
+ * first being held in memory as raw data and then again as events.
+ */
+public interface EventSource {
+
+  /**
+   * Reads every event from the source and gives each to {@code sink} in turn.
+   *
+   * @param sink Receives the events in the order the source holds them.
+   * @throws IOException If the events cannot be read. Some events may already have been given to
+   *     {@code sink}.
+   */
+  void forEachEvent(Consumer<? super Event> sink) throws IOException;
+
+  /**
+   * Returns a source that holds exactly {@code events}.
+   */
+  static EventSource of(Collection<Event> events) {
+    return sink -> events.forEach(sink);
+  }
+}
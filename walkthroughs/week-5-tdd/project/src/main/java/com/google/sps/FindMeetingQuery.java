@@ -18,8 +18,8 @@ import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * FindMeetingQuery Class - Uses Event, Meeting Request, and Time Range objects
@@ -35,9 +35,54 @@ import java.util.HashSet;
  *      Collect optional busy times
  *      Calculate those free windows
  *      Calculate intersection
+ *
+ * Busy times are read from an {@code EventIndex}, so a query only touches the events of the
+ * people in the request. Callers that run many queries should build the index once and reuse it.
+ * Busy and free times are worked out on packed {@code int[]} intervals ({@code IntervalSet}), and
+ * {@code TimeRange}s are only created for the windows that are returned. Large groups are
+ * combined on per-minute bitmaps ({@code DayBitmap}) instead. The index caches each group's
+ * free time, so repeating a query with the same people only filters it by the new duration.
+ *
+ * {@code queryMaximizingOptionals} is a best-effort alternative for large meetings: instead of
+ * all or nothing, it returns the windows that the most optional attendees can make.
+ * {@code queryTopSlots} instead suggests a few ranked slots for the UI to offer, found by a scan
+ * that stops as soon as the best ones are settled ({@code SlotRanker}).
+ *
+ * Calendars that span several days are searched through a {@code CalendarIndex}, which buckets
+ * busy times by day and applies each attendee's working hours and time zone.
+ *
+ * A query built with a {@code ForkJoinPool} splits very large groups into chunks, combines each
+ * chunk's busy minutes on a worker, and ORs the partial results together. Smaller groups always
+ * take the sequential path, where the hand-off would cost more than it saves.
  */
 public final class FindMeetingQuery {
 
+  // From this many attendees on, ORing cached minute bitmaps beats sorting and merging intervals.
+  private static final int BITMAP_MIN_ATTENDEES = 16;
+
+  // Groups smaller than this are not worth splitting across the pool.
+  private static final int PARALLEL_MIN_ATTENDEES = 2048;
+
+  // Attendees a single fork-join task combines without splitting further.
+  private static final int PARALLEL_CHUNK_SIZE = 512;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a query that runs entirely on the calling thread.
+   */
+  public FindMeetingQuery() {
+    this(null);
+  }
+
+  /**
+   * Creates a query that combines the busy times of very large groups in parallel on
+   * {@code pool}, or entirely on the calling thread if {@code pool} is null.
+   */
+  public FindMeetingQuery(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
   /**
   * Function query
   * This method searches for common free windows in the schedules of the attendees needed. 
@@ -48,148 +93,607 @@ public final class FindMeetingQuery {
   * @return A list of possible time frames that satisfy the request.
   */
   public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    return query(indexFor(events, request), request);
+  }
 
-    ArrayList<TimeRange> candidates = new ArrayList<>();
-    ArrayList<String> guests = new ArrayList<>(request.getAttendees());
-    ArrayList<String> optionals = new ArrayList<>(request.getOptionalAttendees());
+  /**
+  * Function query
+  * Same as {@code query(Collection, MeetingRequest)}, but reads busy times from a prebuilt index.
+  *
+  * @param index The busy times of everyone on the calendar for the day.
+  * @param request The object containing the requesting event and details
+  * @return A list of possible time frames that satisfy the request.
+  */
+  public Collection<TimeRange> query(EventIndex index, MeetingRequest request) {
+    int[] guests = request.attendeeIds();
+    int[] optionals = request.optionalAttendeeIds();
     long duration = request.getDuration();
     
     if (duration > TimeRange.WHOLE_DAY.duration()) {
       return Arrays.asList();
-    } else if (events.isEmpty() || guests.isEmpty()) {
+    } else if (index.isEmpty() || request.getAttendees().isEmpty()) {
       return Arrays.asList(TimeRange.WHOLE_DAY);
     }
 
-    if (optionals.isEmpty()) {
-      return communalFreeWindows(guests, duration, events);
+    if (optionals.length == 0) {
+      return communalFreeWindows(guests, duration, index).toTimeRanges();
     } else {
-      return meetingWithOptionals(guests, optionals, duration, events);
+      return meetingWithOptionals(guests, optionals, duration, index);
     }
   }
 
+  /**
+  * Function query
+  * Searches a horizon that may span many days, such as a week, for windows the attendees have in
+  * common, honouring each attendee's working hours and time zone. Optional attendees are handled
+  * as in the single-day query: accommodated if possible, all or nothing.
+  *
+  * @param calendar The busy times and working hours of everyone on the calendar.
+  * @param request The object containing the requesting event and details
+  * @param horizon The time to search, at most {@code CalendarIndex.MAX_HORIZON_DAYS} long.
+  * @return The possible windows within the horizon, sorted by start. A window may cross midnight.
+  */
+  public List<EpochMinuteRange> query(
+      CalendarIndex calendar, MeetingRequest request, EpochMinuteRange horizon) {
+    long maxHorizon = (long) CalendarIndex.MAX_HORIZON_DAYS * EpochMinuteRange.MINUTES_PER_DAY;
+    if (horizon.duration() > maxHorizon) {
+      throw new IllegalArgumentException(
+          "horizon cannot be longer than " + CalendarIndex.MAX_HORIZON_DAYS + " days");
+    }
+    long duration = request.getDuration();
+    if (duration > horizon.duration()) {
+      return new ArrayList<>();
+    }
+
+    int length = (int) horizon.duration();
+    IntervalSet mandatoryWindows =
+        horizonFreeWindows(request.getAttendees(), duration, calendar, horizon.start(), length);
+    IntervalSet windows = mandatoryWindows;
+    if (!request.getOptionalAttendees().isEmpty()) {
+      IntervalSet optionalWindows = horizonFreeWindows(
+          request.getOptionalAttendees(), duration, calendar, horizon.start(), length);
+      IntervalSet accommodatingWindows =
+          windowIntersections(mandatoryWindows, optionalWindows, duration);
+      if (accommodatingWindows.size() > 0) {
+        windows = accommodatingWindows;
+      }
+    }
+
+    List<EpochMinuteRange> ranges = new ArrayList<>(windows.size());
+    for (int i = 0; i < windows.size(); i++) {
+      ranges.add(EpochMinuteRange.fromStartEnd(
+          horizon.start() + windows.start(i), horizon.start() + windows.end(i)));
+    }
+    return ranges;
+  }
+
+  /**
+  * Function query
+  * This method searches for windows that suit the attendees and in which a room from the pool
+  * that holds all of them is free too. Optional attendees are accommodated if possible, all or
+  * nothing, and only count towards the room's size when they are.
+  *
+  * @param index The busy times of everyone on the calendar for the day, rooms included.
+  * @param rooms The rooms the meeting may be held in.
+  * @param request The object containing the requesting event and details
+  * @return The windows, sorted by start. Every slot of the meeting's duration inside a window fits
+  *     in some room; {@code RoomPool.roomFor} picks one.
+  */
+  public Collection<TimeRange> query(EventIndex index, RoomPool rooms, MeetingRequest request) {
+    int[] guests = request.attendeeIds();
+    int[] optionals = request.optionalAttendeeIds();
+    long duration = request.getDuration();
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return Arrays.asList();
+    }
+
+    // People on no event have no busy times, but they still need a seat.
+    int guestCount = request.getAttendees().size();
+    int optionalCount = request.getOptionalAttendees().size();
+    IntervalSet mandatoryWindows = communalFreeWindows(guests, duration, index);
+    if (optionalCount > 0) {
+      IntervalSet accommodatingWindows = windowIntersections(
+          mandatoryWindows, communalFreeWindows(optionals, duration, index), duration);
+      IntervalSet roomWindows = roomWindows(
+          accommodatingWindows, duration, guestCount + optionalCount, rooms);
+      if (roomWindows.size() > 0 || guestCount == 0) {
+        return roomWindows.toTimeRanges();
+      }
+    }
+    return roomWindows(mandatoryWindows, duration, guestCount, rooms).toTimeRanges();
+  }
+
+  /**
+  * Function queryMaximizingOptionals
+  * Same as {@code queryMaximizingOptionals(EventIndex, MeetingRequest)}, but builds the index from
+  * the events first.
+  *
+  * @param events A list of all of the events and attendees for the day
+  * @param request The object containing the requesting event and details
+  * @return The windows that the most optional attendees can make, sorted by start.
+  */
+  public List<MeetingWindow> queryMaximizingOptionals(
+      Collection<Event> events, MeetingRequest request) {
+    return queryMaximizingOptionals(indexFor(events, request), request);
+  }
+
+  /**
+  * Function queryMaximizingOptionals
+  * This method searches for the windows that suit every required attendee and as many of the
+  * optional attendees as possible, rather than all optional attendees or none. Each optional
+  * attendee's free time inside the required attendees' windows is cut into runs long enough for
+  * the meeting, and a window counts only the attendees whose runs cover all of it, so attendees
+  * who are free one after the other are never counted together.
+  *
+  * @param index The busy times of everyone on the calendar for the day.
+  * @param request The object containing the requesting event and details
+  * @return The windows, sorted by start, that are at least the meeting's duration and for the
+  *     whole of which the required attendees and the greatest possible number of optional
+  *     attendees are free. Each reports that number. Windows made up of different optional
+  *     attendees may overlap. Empty if the required attendees have no time that is long enough.
+  */
+  public List<MeetingWindow> queryMaximizingOptionals(EventIndex index, MeetingRequest request) {
+    int[] optionals = request.optionalAttendeeIds();
+    long duration = request.getDuration();
+    List<MeetingWindow> windows = new ArrayList<>();
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return windows;
+    }
+
+    IntervalSet mandatoryWindows = communalFreeWindows(request.attendeeIds(), duration, index);
+    // Optional attendees on no event are free whenever the required attendees are.
+    int alwaysFree = request.getOptionalAttendees().size() - optionals.length;
+    IntervalSet runs = optionalFreeRuns(optionals, mandatoryWindows, duration, index);
+    if (runs.size() == 0) {
+      for (TimeRange when : mandatoryWindows.toTimeRanges()) {
+        windows.add(new MeetingWindow(when, alwaysFree));
+      }
+      return windows;
+    }
+
+    // Each attendee's runs are disjoint, so the runs holding a slot belong to different
+    // attendees. Only the start of a run can add to them, so only those starts are checked.
+    int[] ends = new int[runs.size()];
+    int best = 0;
+    for (int i = 0; i < runs.size(); i++) {
+      best = Math.max(best, coveringRunEnds(runs, runs.start(i), duration, ends));
+    }
+
+    // The window starting at a run is as long as the best-th latest end among the runs holding
+    // it. Skip windows inside one that was already found.
+    int lastEnd = -1;
+    for (int i = 0; i < runs.size(); i++) {
+      int start = runs.start(i);
+      int count = coveringRunEnds(runs, start, duration, ends);
+      if (count < best) {
+        continue;
+      }
+      Arrays.sort(ends, 0, count);
+      int end = ends[count - best];
+      if (end > lastEnd) {
+        windows.add(
+            new MeetingWindow(TimeRange.fromStartEnd(start, end, false), best + alwaysFree));
+        lastEnd = end;
+      }
+    }
+    return windows;
+  }
+
+  /**
+  * Function queryTopSlots
+  * This method suggests the few best slots for the meeting rather than every window. Slots are
+  * exactly as long as the meeting and ranked by the most optional attendees who can come, the
+  * fewest minutes outside the preferred hours, the fewest unusably short gaps left around them,
+  * and then the earliest start. The scan stops once the slots found cannot be beaten.
+  *
+  * @param index The busy times of everyone on the calendar for the day.
+  * @param request The object containing the requesting event and details
+  * @param preferredHours The part of the day the meeting should preferably be held in.
+  * @param limit The most slots to return. Must be positive.
+  * @return Up to {@code limit} slots that suit every required attendee, best first. Each reports
+  *     how many optional attendees are free for all of it.
+  */
+  public List<MeetingWindow> queryTopSlots(
+      EventIndex index, MeetingRequest request, TimeRange preferredHours, int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+    long duration = request.getDuration();
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+
+    int[] optionals = request.optionalAttendeeIds();
+    int optionalCount = request.getOptionalAttendees().size();
+    IntervalSet mandatoryWindows = communalFreeWindows(request.attendeeIds(), duration, index);
+    IntervalSet segments = new IntervalSet();
+    int[] freeCounts =
+        countFreeOptionals(optionals, optionalCount, mandatoryWindows, index, segments);
+    return new SlotRanker((int) duration, preferredHours, optionals, optionalCount, index)
+        .rank(mandatoryWindows, segments, freeCounts, limit);
+  }
+
+  /**
+   * Method indexFor
+   * This helper method indexes the events that at least one person in the request attends. The
+   * rest cannot affect the answer, and checking an event only walks sorted ID arrays.
+   *
+   * @param events A list of all of the events and attendees for the day
+   * @param request The object containing the requesting event and details
+   * @return The busy times of the people in the request.
+   */
+  private static EventIndex indexFor(Collection<Event> events, MeetingRequest request) {
+    int[] attendees = request.attendeeIds();
+    int[] optionals = request.optionalAttendeeIds();
+    EventIndex.Builder index = new EventIndex.Builder();
+    for (Event event : events) {
+      int[] eventAttendees = event.attendeeIds();
+      if (AttendeeDictionary.intersects(eventAttendees, attendees)
+          || AttendeeDictionary.intersects(eventAttendees, optionals)) {
+        index.add(event);
+      }
+    }
+    return index.build();
+  }
+
   /**
    * Method meetingWithOptionals
    * This method handles the case that there are optional attendees for this meeting.
    * Accommodation of the optional attendees is all or nothing.
    *
-   * @param mandatory The required meeting attendees.
-   * @param optionals The optional meeting attendees.
+   * @param mandatory The IDs of the required meeting attendees.
+   * @param optionals The IDs of the optional meeting attendees.
    * @param duration The desired length of the meeting.
-   * @param events A list of all the events occuring during that day.
+   * @param index The busy times of everyone for that day.
    * @return A list of the time slots that attempts to accommodate all attendees.
    */
   private Collection<TimeRange> meetingWithOptionals
-      (Collection<String> mandatory, Collection<String> optionals, 
-      long duration, Collection<Event> events) {
+      (int[] mandatory, int[] optionals, 
+      long duration, EventIndex index) {
         
-    ArrayList<TimeRange> mandatoryWindows = (ArrayList<TimeRange>) communalFreeWindows(mandatory, duration, events);
-    ArrayList<TimeRange> optionalWindows = (ArrayList<TimeRange>) communalFreeWindows(optionals, duration, events);
+    IntervalSet mandatoryWindows = communalFreeWindows(mandatory, duration, index);
+    IntervalSet optionalWindows = communalFreeWindows(optionals, duration, index);
 
-    if (mandatory.isEmpty()) {
-      return optionalWindows;
-    }
-    ArrayList<TimeRange> accommodatingWindows = windowIntersections(mandatoryWindows, optionalWindows, duration);
-    if (accommodatingWindows.isEmpty()) {
-      return mandatoryWindows;
+    IntervalSet accommodatingWindows =
+        windowIntersections(mandatoryWindows, optionalWindows, duration);
+    if (accommodatingWindows.size() == 0) {
+      return mandatoryWindows.toTimeRanges();
     }
-    return accommodatingWindows;
+    return accommodatingWindows.toTimeRanges();
   }
 
   /**
    * Method communalFreeWindows
    * This method finds the free time throughout the day that 
    * a desired group of people have in common.
+   * The group's free time is cached in the index, so asking again about the same people only
+   * has to filter it by duration.
    *
-   * @param attendees The desired group of people to find free time for.
+   * @param attendees The IDs of the desired group of people, sorted.
    * @param duration The minimum desired length of free time sought after
-   * @param events A list of all the events ocurring during one day.
-   * @return A list of the free spaces the desired people have in common.
+   * @param index The busy times of everyone for that day.
+   * @return The free spaces the desired people have in common, sorted.
    */
-  private Collection<TimeRange> communalFreeWindows 
-      (Collection<String> attendees, long duration, Collection<Event> events) {
+  private IntervalSet communalFreeWindows 
+      (int[] attendees, long duration, EventIndex index) {
     
-    ArrayList<TimeRange> sortedUnavailableTimes = (ArrayList<TimeRange>) collectBusyTimes(attendees, events);
-    ArrayList<TimeRange> freeWindows = (ArrayList<TimeRange>) findAppropiateFreeWindows(sortedUnavailableTimes, duration);
+    EventIndex.Group group = new EventIndex.Group(attendees);
+    long generation = index.generation();
+    int[] freeTimes = index.cachedFreeTimes(group);
+    if (freeTimes == null) {
+      freeTimes = groupFreeTimes(attendees, index).toPackedArray();
+      index.cacheFreeTimes(group, freeTimes, generation);
+    }
+
+    IntervalSet freeWindows = new IntervalSet(freeTimes.length / 2);
+    freeWindows.addAll(freeTimes, 0, freeTimes.length / 2);
+    freeWindows.retainAtLeast(duration);
     return freeWindows;
   }
 
   /**
-   * Method collectBusyTimes
-   * This helper method takes a list of people and generates their schedules from a list of events.
+   * Method groupFreeTimes
+   * This method works out all of the free time throughout the day that a group has in common,
+   * however short.
    *
-   * @param attendees The desired people whose schedules are considered.
-   * @param events A list of all of the events occuring.
-   * @return a sorted list of the busy times of the provided people.
+   * @param attendees The IDs of the desired group of people, sorted.
+   * @param index The busy times of everyone for that day.
+   * @return The free spaces the desired people have in common, sorted.
    */
-  private Collection<TimeRange> collectBusyTimes(Collection<String> attendees, Collection<Event> events) {
-    HashSet<TimeRange> unavailableTimes = new HashSet<TimeRange>();
-    for (Event cur : events) {
-      if (!Collections.disjoint(cur.getAttendees(), attendees)) {
-        unavailableTimes.add(cur.getWhen());
+  private IntervalSet groupFreeTimes(int[] attendees, EventIndex index) {
+    if (attendees.length >= BITMAP_MIN_ATTENDEES) {
+      DayBitmap busyMinutes;
+      if (pool != null && attendees.length >= PARALLEL_MIN_ATTENDEES) {
+        busyMinutes = pool.invoke(new BusyMinutesTask(attendees, 0, attendees.length, index));
+      } else {
+        busyMinutes = new DayBitmap();
+        for (int attendee : attendees) {
+          index.orBusyMinutes(attendee, busyMinutes);
+        }
       }
+      IntervalSet freeTimes = new IntervalSet();
+      busyMinutes.appendFreeRuns(1, freeTimes);
+      return freeTimes;
     }
 
-    ArrayList<TimeRange> sortedUnavailableTimes = new ArrayList<>(unavailableTimes);
-    Collections.sort(sortedUnavailableTimes, TimeRange.ORDER_BY_START);
-    return sortedUnavailableTimes;
+    IntervalSet busyTimes = collectBusyTimes(attendees, index);
+    IntervalSet freeTimes = new IntervalSet(busyTimes.size() + 1);
+    busyTimes.complement(TimeRange.WHOLE_DAY.start(), TimeRange.WHOLE_DAY.end(), freeTimes);
+    return freeTimes;
   }
 
   /**
-   * Method findAppropiateFreeWindows
-   * This helper method determines free times within a communal schedule that are sufficiently long.
+   * Method horizonFreeWindows
+   * This method finds the free time across a multi-day horizon that a group has in common.
    *
-   * @param sortedUnavailableTimes A list of busy times ordered for the day.
-   * @param duration The desired length of the meeting.
-   * @return A list of communal free times that are sufficiently long.
+   * @param attendees The desired group of people to find free time for.
+   * @param duration The minimum desired length of free time sought after
+   * @param calendar The busy times and working hours of everyone on the calendar.
+   * @param from The start of the horizon in epoch minutes.
+   * @param length The length of the horizon in minutes.
+   * @return The free spaces the group has in common, as minutes relative to {@code from}.
    */
-  private Collection<TimeRange> findAppropiateFreeWindows(Collection<TimeRange> sortedUnavailableTimes, long duration) {
-    List<TimeRange> freeWindows = new ArrayList<>();
-
-    int previousEventEnd = 0;
-    for (TimeRange curWhen : sortedUnavailableTimes) {
-      if (curWhen.start() <= previousEventEnd) { // Overlapping events
-        if (!(curWhen.end() < previousEventEnd)) { // confirm no encapsulation
-          previousEventEnd = curWhen.end(); 
-        }
-        continue;
-      } else if (duration <= curWhen.start() - previousEventEnd) {
-        freeWindows.add(TimeRange.fromStartEnd(previousEventEnd, curWhen.start(), false));
-      }
-      previousEventEnd = curWhen.end();
+  private IntervalSet horizonFreeWindows(Collection<String> attendees, long duration,
+      CalendarIndex calendar, long from, int length) {
+
+    IntervalSet busyTimes = new IntervalSet();
+    calendar.appendBusyTimes(attendees, from, length, busyTimes);
+    busyTimes.sort();
+    busyTimes.merge();
+
+    IntervalSet freeWindows = new IntervalSet(busyTimes.size() + 1);
+    busyTimes.complement(0, length, freeWindows);
+    freeWindows.retainAtLeast(duration);
+    return freeWindows;
+  }
+
+  /**
+   * Method collectBusyTimes
+   * This helper method takes a list of people and gathers their schedules from the index.
+   *
+   * @param attendees The IDs of the desired people whose schedules are considered.
+   * @param index The busy times of everyone for that day.
+   * @return the busy times of the provided people, sorted and merged.
+   */
+  private IntervalSet collectBusyTimes(int[] attendees, EventIndex index) {
+    IntervalSet busyTimes = new IntervalSet();
+    for (int attendee : attendees) {
+      index.appendMergedBusyTimes(attendee, busyTimes);
     }
 
-    if (TimeRange.WHOLE_DAY.end() - previousEventEnd >= duration) {
-      freeWindows.add(TimeRange.fromStartEnd(previousEventEnd, TimeRange.WHOLE_DAY.end(), false));
+    // The index keeps each attendee's busy times merged, so one attendee's are ready as they are.
+    if (attendees.length > 1) {
+      busyTimes.sort();
+      busyTimes.merge();
     }
-    return freeWindows;
+    return busyTimes;
   }
 
   /**
    * Method windowIntersections
    * This method finds the times in common between two schedules that fit a time constraint.
-   * Assumes that each schedule is sorted from start to end of day.
+   * Assumes that each schedule is sorted from start to end of day and has no overlaps, which lets
+   * it walk both schedules once side by side instead of comparing every pair of windows.
    *
    * @param primary A schedule to consider.
    * @param secondary A schedule to consider its intersection with the other.
    * @param minWindowSize The desired minimum length for free times in common.
-   * @return A list of the times these schedules have in common.
+   * @return The times these schedules have in common.
    */
-  private ArrayList<TimeRange> windowIntersections
-      (ArrayList<TimeRange> primary, ArrayList<TimeRange> secondary, long minWindowSize) {
+  private IntervalSet windowIntersections
+      (IntervalSet primary, IntervalSet secondary, long minWindowSize) {
     
-    ArrayList<TimeRange> scheduleIntersxns = new ArrayList<TimeRange>();
-    for (int i = 0; i < primary.size(); i++) {
-      TimeRange a = primary.get(i);
-      for (int j = 0; j < secondary.size(); j++) {
-        TimeRange b = secondary.get(j);
-        if (a.overlaps(b)) {
-          TimeRange window = a.getOverlap(b);
-          if (window.duration() >= minWindowSize) {
-            scheduleIntersxns.add(window);
-          }
+    IntervalSet scheduleIntersxns = new IntervalSet(Math.max(primary.size(), secondary.size()));
+    IntervalSet.intersect(primary, secondary, scheduleIntersxns);
+    scheduleIntersxns.retainAtLeast(minWindowSize);
+    return scheduleIntersxns;
+  }
+
+  /**
+   * Method roomWindows
+   * This method narrows free windows down to the parts where a large enough room is free for the
+   * whole meeting. The start times that work in some room are collected and merged, since a merged
+   * run of starts is exactly a window in which any slot has a room, though not always the same one.
+   *
+   * @param windows The free windows of the attendees, sorted.
+   * @param duration The desired length of the meeting.
+   * @param capacity The number of people the room has to hold.
+   * @param rooms The rooms the meeting may be held in.
+   * @return The windows that also have a room, sorted.
+   */
+  private IntervalSet roomWindows
+      (IntervalSet windows, long duration, int capacity, RoomPool rooms) {
+
+    IntervalSet starts = new IntervalSet();
+    for (int i = 0; i < windows.size(); i++) {
+      rooms.appendStarts(windows.start(i), windows.end(i), duration, capacity, starts);
+    }
+    starts.sort();
+    starts.merge();
+
+    IntervalSet roomWindows = new IntervalSet(starts.size());
+    for (int i = 0; i < starts.size(); i++) {
+      roomWindows.add(starts.start(i), (int) (starts.end(i) - 1 + duration));
+    }
+    return roomWindows;
+  }
+
+  /**
+   * Method countFreeOptionals
+   * This method splits the required attendees' free windows into segments in which the same
+   * optional attendees are free, by sweeping once over the sorted endpoints of the optional busy
+   * times.
+   *
+   * @param optionals The IDs of the optional meeting attendees.
+   * @param optionalCount The number of optional attendees, counting those with no ID, who are
+   *     always free.
+   * @param mandatoryWindows The free windows of the required attendees, sorted and merged.
+   * @param index The busy times of everyone for that day.
+   * @param segments Receives the segments, sorted by start.
+   * @return The number of optional attendees free in each segment, in the same order.
+   */
+  private int[] countFreeOptionals(int[] optionals, int optionalCount,
+      IntervalSet mandatoryWindows, EventIndex index, IntervalSet segments) {
+
+    long[] endpoints = optionalBusyEndpoints(optionals, index);
+    int[] freeCounts = new int[Math.max(1, mandatoryWindows.size())];
+    int free = optionalCount;
+    int next = 0;
+    segments.clear();
+    for (int w = 0; w < mandatoryWindows.size(); w++) {
+      int cursor = mandatoryWindows.start(w);
+      int windowEnd = mandatoryWindows.end(w);
+      while (cursor < windowEnd) {
+        while (next < endpoints.length && endpointTime(endpoints[next]) <= cursor) {
+          free += endpointDelta(endpoints[next]);
+          next++;
+        }
+
+        int segmentEnd = windowEnd;
+        if (next < endpoints.length) {
+          segmentEnd = Math.min(windowEnd, endpointTime(endpoints[next]));
+        }
+        if (segments.size() == freeCounts.length) {
+          freeCounts = Arrays.copyOf(freeCounts, freeCounts.length * 2);
         }
+        freeCounts[segments.size()] = free;
+        segments.add(cursor, segmentEnd);
+        cursor = segmentEnd;
       }
     }
-    return scheduleIntersxns;
+    return freeCounts;
+  }
+
+  /**
+   * Method optionalBusyEndpoints
+   * This helper method gathers where each optional attendee becomes busy and free again. Each
+   * attendee's busy times are merged, as cached by the index, so that overlapping events are only
+   * counted once.
+   *
+   * @param optionals The IDs of the optional meeting attendees.
+   * @param index The busy times of everyone for that day.
+   * @return The endpoints sorted by time, each packed as the minute shifted left by one with the
+   *     low bit set for the end of a busy time.
+   */
+  private long[] optionalBusyEndpoints(int[] optionals, EventIndex index) {
+    IntervalSet busyTimes = new IntervalSet();
+    long[] endpoints = new long[16];
+    int count = 0;
+    for (int attendee : optionals) {
+      busyTimes.clear();
+      index.appendMergedBusyTimes(attendee, busyTimes);
+
+      if (endpoints.length < count + 2 * busyTimes.size()) {
+        endpoints = Arrays.copyOf(
+            endpoints, Math.max(endpoints.length * 2, count + 2 * busyTimes.size()));
+      }
+      for (int i = 0; i < busyTimes.size(); i++) {
+        endpoints[count++] = (long) busyTimes.start(i) << 1;
+        endpoints[count++] = ((long) busyTimes.end(i) << 1) | 1;
+      }
+    }
+
+    Arrays.sort(endpoints, 0, count);
+    return Arrays.copyOf(endpoints, count);
+  }
+
+  private static int endpointTime(long endpoint) {
+    return (int) (endpoint >> 1);
+  }
+
+  private static int endpointDelta(long endpoint) {
+    // An attendee is one fewer free at the start of a busy time and one more at its end.
+    return (endpoint & 1) == 0 ? -1 : 1;
+  }
+
+  /**
+   * Method optionalFreeRuns
+   * This helper method finds when each optional attendee is free during the required attendees'
+   * windows for long enough to hold the meeting.
+   *
+   * @param optionals The IDs of the optional meeting attendees.
+   * @param mandatoryWindows The free windows of the required attendees, sorted and merged.
+   * @param duration The desired length of the meeting.
+   * @param index The busy times of everyone for that day.
+   * @return Every attendee's runs together, sorted by start. Runs of different attendees may
+   *     overlap.
+   */
+  private IntervalSet optionalFreeRuns(int[] optionals, IntervalSet mandatoryWindows,
+      long duration, EventIndex index) {
+
+    IntervalSet runs = new IntervalSet();
+    IntervalSet busyTimes = new IntervalSet();
+    IntervalSet freeTimes = new IntervalSet();
+    IntervalSet attendeeRuns = new IntervalSet();
+    for (int attendee : optionals) {
+      busyTimes.clear();
+      index.appendMergedBusyTimes(attendee, busyTimes);
+      busyTimes.complement(TimeRange.WHOLE_DAY.start(), TimeRange.WHOLE_DAY.end(), freeTimes);
+      IntervalSet.intersect(freeTimes, mandatoryWindows, attendeeRuns);
+      attendeeRuns.retainAtLeast(duration);
+      runs.addAll(attendeeRuns);
+    }
+    runs.sort();
+    return runs;
+  }
+
+  /**
+   * Method coveringRunEnds
+   * This helper method collects the ends of the runs that hold a whole meeting starting at
+   * {@code start}.
+   *
+   * @param runs The runs from {@code optionalFreeRuns}.
+   * @param start The start of the meeting.
+   * @param duration The desired length of the meeting.
+   * @param ends Receives the ends, unsorted.
+   * @return The number of runs, which is the number of optional attendees free for the meeting.
+   */
+  private static int coveringRunEnds(IntervalSet runs, int start, long duration, int[] ends) {
+    int count = 0;
+    for (int i = 0; i < runs.size() && runs.start(i) <= start; i++) {
+      if (runs.end(i) >= start + duration) {
+        ends[count++] = runs.end(i);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Combines the busy minutes of {@code attendees[from, to)}, splitting the range in half until
+   * each piece is small enough to do directly. OR is associative, so the halves can be combined in
+   * any grouping and still give the same day.
+   */
+  private static final class BusyMinutesTask extends RecursiveTask<DayBitmap> {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] attendees;
+    private final int from;
+    private final int to;
+    private final transient EventIndex index;
+
+    BusyMinutesTask(int[] attendees, int from, int to, EventIndex index) {
+      this.attendees = attendees;
+      this.from = from;
+      this.to = to;
+      this.index = index;
+    }
+
+    @Override
+    protected DayBitmap compute() {
+      if (to - from <= PARALLEL_CHUNK_SIZE) {
+        DayBitmap busyMinutes = new DayBitmap();
+        for (int i = from; i < to; i++) {
+          index.orBusyMinutes(attendees[i], busyMinutes);
+        }
+        return busyMinutes;
+      }
+
+      int middle = (from + to) >>> 1;
+      BusyMinutesTask left = new BusyMinutesTask(attendees, from, middle, index);
+      left.fork();
+      DayBitmap busyMinutes = new BusyMinutesTask(attendees, middle, to, index).compute();
+      busyMinutes.or(left.join());
+      return busyMinutes;
+    }
   }
 }
@@ -0,0 +1,237 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * IntervalSet is the scheduler's working representation of a set of time ranges: the bounds are
+ * packed into one {@code int[]} as {@code [start0, end0, start1, end1, ...]} with exclusive ends.
+ * Sorting, merging, complementing and intersecting all work on primitive arrays, so none of them
+ * create {@code TimeRange} objects or box values. Sets grow as needed and can be cleared and
+ * reused, so a caller that keeps its sets around allocates nothing in steady state.
+ *
+ * Instances are mutable and not thread-safe.
+ */
+final class IntervalSet {
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private int[] bounds;
+  private int size;
+
+  // Scratch space for sorting, kept between calls so that re-sorting does not allocate.
+  private long[] sortKeys = new long[0];
+
+  IntervalSet() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  IntervalSet(int capacity) {
+    bounds = new int[Math.max(1, capacity) * 2];
+  }
+
+  /**
+   * Returns the number of intervals in the set.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the inclusive start of the interval at {@code index}.
+   */
+  int start(int index) {
+    return bounds[2 * index];
+  }
+
+  /**
+   * Returns the exclusive end of the interval at {@code index}.
+   */
+  int end(int index) {
+    return bounds[2 * index + 1];
+  }
+
+  /**
+   * Removes every interval while keeping the allocated space.
+   */
+  void clear() {
+    size = 0;
+  }
+
+  /**
+   * Appends the interval {@code [start, end)}. Does not keep the set sorted.
+   */
+  void add(int start, int end) {
+    ensureCapacity(size + 1);
+    bounds[2 * size] = start;
+    bounds[2 * size + 1] = end;
+    size++;
+  }
+
+  /**
+   * Appends {@code count} intervals packed as start/end pairs in {@code packed}, beginning at
+   * {@code offset}.
+   */
+  void addAll(int[] packed, int offset, int count) {
+    ensureCapacity(size + count);
+    System.arraycopy(packed, offset, bounds, 2 * size, 2 * count);
+    size += count;
+  }
+
+  /**
+   * Appends every interval of {@code other}.
+   */
+  void addAll(IntervalSet other) {
+    addAll(other.bounds, 0, other.size);
+  }
+
+  /**
+   * Replaces the contents of this set with those of {@code other}.
+   */
+  void copyFrom(IntervalSet other) {
+    clear();
+    addAll(other);
+  }
+
+  /**
+   * Sorts the intervals by start time, breaking ties by end time.
+   */
+  void sort() {
+    if (sortKeys.length < size) {
+      sortKeys = new long[Math.max(size, sortKeys.length * 2)];
+    }
+    // Minutes are never negative, so packing start above end sorts the same as comparing pairs.
+    for (int i = 0; i < size; i++) {
+      sortKeys[i] = ((long) bounds[2 * i] << 32) | (bounds[2 * i + 1] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(sortKeys, 0, size);
+    for (int i = 0; i < size; i++) {
+      bounds[2 * i] = (int) (sortKeys[i] >>> 32);
+      bounds[2 * i + 1] = (int) sortKeys[i];
+    }
+  }
+
+  /**
+   * Merges overlapping and touching intervals in place. The set must already be sorted by start.
+   * Empty intervals are dropped.
+   */
+  void merge() {
+    int merged = 0;
+    for (int i = 0; i < size; i++) {
+      int start = bounds[2 * i];
+      int end = bounds[2 * i + 1];
+      if (end <= start) {
+        continue;
+      }
+
+      if (merged > 0 && start <= bounds[2 * merged - 1]) {
+        bounds[2 * merged - 1] = Math.max(bounds[2 * merged - 1], end);
+      } else {
+        bounds[2 * merged] = start;
+        bounds[2 * merged + 1] = end;
+        merged++;
+      }
+    }
+    size = merged;
+  }
+
+  /**
+   * Writes the gaps between this set's intervals within {@code [from, to)} into {@code out},
+   * replacing its contents. This set must be sorted and merged.
+   */
+  void complement(int from, int to, IntervalSet out) {
+    out.clear();
+    int cursor = from;
+    for (int i = 0; i < size && cursor < to; i++) {
+      int start = bounds[2 * i];
+      int end = bounds[2 * i + 1];
+      if (start > cursor) {
+        out.add(cursor, Math.min(start, to));
+      }
+      cursor = Math.max(cursor, end);
+    }
+
+    if (cursor < to) {
+      out.add(cursor, to);
+    }
+  }
+
+  /**
+   * Writes the overlap of {@code a} and {@code b} into {@code out}, replacing its contents. Both
+   * inputs must be sorted and merged; so is the result. Walks both sets once.
+   */
+  static void intersect(IntervalSet a, IntervalSet b, IntervalSet out) {
+    out.clear();
+    int i = 0;
+    int j = 0;
+    while (i < a.size && j < b.size) {
+      int start = Math.max(a.start(i), b.start(j));
+      int end = Math.min(a.end(i), b.end(j));
+      if (start < end) {
+        out.add(start, end);
+      }
+
+      // Whichever interval ends first cannot overlap anything further along the other set.
+      if (a.end(i) < b.end(j)) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+  }
+
+  /**
+   * Drops every interval shorter than {@code minLength}.
+   */
+  void retainAtLeast(long minLength) {
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      int start = bounds[2 * i];
+      int end = bounds[2 * i + 1];
+      if (end - start >= minLength) {
+        bounds[2 * kept] = start;
+        bounds[2 * kept + 1] = end;
+        kept++;
+      }
+    }
+    size = kept;
+  }
+
+  /**
+   * Returns the intervals as a new list of {@code TimeRange}s, in set order.
+   */
+  List<TimeRange> toTimeRanges() {
+    List<TimeRange> ranges = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ranges.add(TimeRange.fromStartEnd(bounds[2 * i], bounds[2 * i + 1], false));
+    }
+    return ranges;
+  }
+
+  /**
+   * Returns a copy of the packed bounds, trimmed to the current size.
+   */
+  int[] toPackedArray() {
+    return Arrays.copyOf(bounds, 2 * size);
+  }
+
+  private void ensureCapacity(int intervals) {
+    if (bounds.length < 2 * intervals) {
+      bounds = Arrays.copyOf(bounds, Math.max(2 * intervals, bounds.length * 2));
+    }
+  }
+}
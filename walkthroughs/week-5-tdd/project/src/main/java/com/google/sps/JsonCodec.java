@@ -0,0 +1,234 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Shared JSON codec for the servlets. Gson instances are thread-safe, so one preconfigured instance
+ * is built once and reused instead of paying for reflection and adapter lookup on each request.
+ * {@code TimeRange}, {@code Event} and {@code MeetingRequest} have hand-written adapters. They
+ * produce the JSON Gson's reflective ones produced before attendees were stored as IDs.
+ */
+public final class JsonCodec {
+
+  public static final Gson GSON = new GsonBuilder()
+      .registerTypeAdapter(TimeRange.class, new TimeRangeAdapter())
+      .registerTypeAdapter(Event.class, new EventAdapter())
+      .registerTypeAdapter(MeetingRequest.class, new MeetingRequestAdapter())
+      .create();
+
+  private JsonCodec() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns a JsonWriter that encodes straight to {@code out} as UTF-8. Callers must flush it once
+   * they are done.
+   */
+  public static JsonWriter newWriter(OutputStream out) throws IOException {
+    return GSON.newJsonWriter(
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+  }
+
+  /** Writes {@code value} to {@code out} as UTF-8 JSON without building an intermediate string. */
+  public static void write(Object value, Type type, OutputStream out) throws IOException {
+    JsonWriter writer = newWriter(out);
+    GSON.toJson(value, type, writer);
+    writer.flush();
+  }
+
+  /** Writes a TimeRange as its start and duration in minutes. */
+  static final class TimeRangeAdapter extends TypeAdapter<TimeRange> {
+    @Override
+    public void write(JsonWriter out, TimeRange range) throws IOException {
+      if (range == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("start").value(range.start());
+      out.name("duration").value(range.duration());
+      out.endObject();
+    }
+
+    @Override
+    public TimeRange read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      int start = 0;
+      int duration = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "start":
+            start = in.nextInt();
+            break;
+          case "duration":
+            duration = in.nextInt();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return TimeRange.fromStartDuration(start, duration);
+    }
+  }
+
+  /** Writes an Event as its title, time range and attendees. */
+  static final class EventAdapter extends TypeAdapter<Event> {
+    private final TimeRangeAdapter timeRangeAdapter = new TimeRangeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Event event) throws IOException {
+      if (event == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("title").value(event.getTitle());
+      out.name("when");
+      timeRangeAdapter.write(out, event.getWhen());
+      out.name("attendees").beginArray();
+      for (String attendee : event.getAttendees()) {
+        out.value(attendee);
+      }
+      out.endArray();
+      out.endObject();
+    }
+
+    @Override
+    public Event read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String title = null;
+      TimeRange when = null;
+      List<String> attendees = new ArrayList<>();
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "title":
+            title = in.nextString();
+            break;
+          case "when":
+            when = timeRangeAdapter.read(in);
+            break;
+          case "attendees":
+            in.beginArray();
+            while (in.hasNext()) {
+              attendees.add(in.nextString());
+            }
+            in.endArray();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Event(title, when, attendees);
+    }
+  }
+
+  /** Writes a MeetingRequest as its attendees, optional attendees and duration. */
+  static final class MeetingRequestAdapter extends TypeAdapter<MeetingRequest> {
+    @Override
+    public void write(JsonWriter out, MeetingRequest request) throws IOException {
+      if (request == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("attendees");
+      writeNames(out, request.getAttendees());
+      out.name("optional_attendees");
+      writeNames(out, request.getOptionalAttendees());
+      out.name("duration").value(request.getDuration());
+      out.endObject();
+    }
+
+    @Override
+    public MeetingRequest read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      List<String> attendees = new ArrayList<>();
+      List<String> optionalAttendees = new ArrayList<>();
+      long duration = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "attendees":
+            readNames(in, attendees);
+            break;
+          case "optional_attendees":
+            readNames(in, optionalAttendees);
+            break;
+          case "duration":
+            duration = in.nextLong();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+
+      MeetingRequest request = new MeetingRequest(attendees, duration);
+      for (String optionalAttendee : optionalAttendees) {
+        request.addOptionalAttendee(optionalAttendee);
+      }
+      return request;
+    }
+
+    private static void writeNames(JsonWriter out, Collection<String> names) throws IOException {
+      out.beginArray();
+      for (String name : names) {
+        out.value(name);
+      }
+      out.endArray();
+    }
+
+    private static void readNames(JsonReader in, List<String> names) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return;
+      }
+      in.beginArray();
+      while (in.hasNext()) {
+        names.add(in.nextString());
+      }
+      in.endArray();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * JsonEventSource reads events from a file holding a JSON array in the format /get-events
+ * returns. The file is parsed with a streaming reader one event at a time, so only the event
+ * being read is held in memory, never the whole document.
+ */
+public final class JsonEventSource implements EventSource {
+  private final Path path;
+
+  /**
+   * Creates a source that reads the file at {@code path} each time it is asked for events.
+   */
+  public JsonEventSource(Path path) {
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+    this.path = path;
+  }
+
+  @Override
+  public void forEachEvent(Consumer<? super Event> sink) throws IOException {
+    TypeAdapter<Event> adapter = JsonCodec.GSON.getAdapter(Event.class);
+    try (JsonReader reader =
+        JsonCodec.GSON.newJsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+      reader.beginArray();
+      while (reader.hasNext()) {
+        String position = reader.getPath();
+        Event event;
+        try {
+          event = adapter.read(reader);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          throw new IOException(path + ": invalid event at " + position, e);
+        }
+        if (event == null) {
+          throw new IOException(path + ": expected an event at " + position + " but was null");
+        }
+        sink.accept(event);
+      }
+      reader.endArray();
+    } catch (IllegalStateException e) {
+      // Thrown by the reader when the document is not an array.
+      throw new IOException(path + ": expected a JSON array of events", e);
+    }
+  }
+}
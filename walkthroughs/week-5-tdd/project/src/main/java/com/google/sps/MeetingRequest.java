@@ -14,12 +14,15 @@
 
 package com.google.sps;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 
+/**
+ * MeetingRequest describes a meeting to be scheduled: who must come, who may come, and for how
+ * long. Attendees are held by name; the scheduler looks up their {@code AttendeeDictionary} IDs
+ * when it runs, so a name that is on no event never gets an ID.
+ */
 public final class MeetingRequest {
 
   /////////////////////////////////////////////
@@ -27,7 +30,8 @@ public final class MeetingRequest {
   /////////////////////////////////////////////
   // Any new fields added to this class
   // must be reflected in the class of the
-  // same name in script.js
+  // same name in script.js and in
+  // JsonCodec.MeetingRequestAdapter
   /////////////////////////////////////////////
 
   // All the people that should be attending this new meeting. Use a set to avoid duplicates.
@@ -67,6 +71,20 @@ public final class MeetingRequest {
     }
   }
 
+  /**
+   * Returns the sorted IDs of the required attendees who have one. Those without are on no event.
+   */
+  int[] attendeeIds() {
+    return AttendeeDictionary.lookupAll(attendees);
+  }
+
+  /**
+   * Returns the sorted IDs of the optional attendees who have one. Those without are on no event.
+   */
+  int[] optionalAttendeeIds() {
+    return AttendeeDictionary.lookupAll(optional_attendees);
+  }
+
   /**
    * Returns the duration of the meeting in minutes.
    */
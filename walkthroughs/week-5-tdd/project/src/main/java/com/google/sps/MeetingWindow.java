@@ -0,0 +1,74 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * MeetingWindow is a time a meeting could be held, together with how many of the request's
+ * optional attendees are free for the whole of it. Windows are considered read-only.
+ */
+public final class MeetingWindow {
+  private final TimeRange when;
+  private final int optionalAttendeeCount;
+
+  /**
+   * Creates a new window.
+   *
+   * @param when The time the meeting could be held. Must be non-null.
+   * @param optionalAttendeeCount The number of optional attendees free for all of {@code when}.
+   */
+  public MeetingWindow(TimeRange when, int optionalAttendeeCount) {
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (optionalAttendeeCount < 0) {
+      throw new IllegalArgumentException("optionalAttendeeCount cannot be negative");
+    }
+
+    this.when = when;
+    this.optionalAttendeeCount = optionalAttendeeCount;
+  }
+
+  /**
+   * Returns the {@code TimeRange} the meeting could be held in.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns how many optional attendees can attend for the whole window.
+   */
+  public int getOptionalAttendeeCount() {
+    return optionalAttendeeCount;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof MeetingWindow
+        && when.equals(((MeetingWindow) other).when)
+        && optionalAttendeeCount == ((MeetingWindow) other).optionalAttendeeCount;
+  }
+
+  @Override
+  public int hashCode() {
+    return when.hashCode() * 31 + optionalAttendeeCount;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s with %d optional", when, optionalAttendeeCount);
+  }
+}
@@ -0,0 +1,199 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Recurrence says how a {@code CalendarEvent} repeats: every so many days or weeks, at the same
+ * local time in a time zone, either forever or a set number of times. Daylight saving changes are
+ * applied per occurrence, so a weekly 10:00 meeting stays at 10:00 local time all year.
+ *
+ * Occurrences are never stored. {@code occurrences} works out which of them fall in a horizon and
+ * generates only those, one at a time, so a meeting that repeats forever costs no more to look up
+ * than the occurrences actually asked about. Recurrences are considered read-only.
+ */
+public final class Recurrence {
+  /** How often an event repeats, before the interval is applied. */
+  public enum Frequency {
+    DAILY(1),
+    WEEKLY(7);
+
+    private final int days;
+
+    Frequency(int days) {
+      this.days = days;
+    }
+  }
+
+  /** The count of a recurrence that never ends. */
+  public static final int FOREVER = Integer.MAX_VALUE;
+
+  private final Frequency frequency;
+  private final int interval;
+  private final ZoneId zone;
+  private final int count;
+
+  /**
+   * Creates a new recurrence.
+   *
+   * @param frequency Whether the event repeats daily or weekly. Must be non-null.
+   * @param interval How many days or weeks lie between occurrences. Must be positive.
+   * @param zone The time zone whose local time the occurrences keep. Must be non-null.
+   * @param count How many times the event happens, the first included, or {@code FOREVER}. Must be
+   *     positive.
+   */
+  public Recurrence(Frequency frequency, int interval, ZoneId zone, int count) {
+    if (frequency == null || zone == null) {
+      throw new IllegalArgumentException("frequency and zone cannot be null");
+    }
+
+    if (interval <= 0 || count <= 0) {
+      throw new IllegalArgumentException("interval and count must be positive");
+    }
+
+    this.frequency = frequency;
+    this.interval = interval;
+    this.zone = zone;
+    this.count = count;
+  }
+
+  /**
+   * Returns a recurrence every week, forever, in {@code zone}.
+   */
+  public static Recurrence weekly(ZoneId zone) {
+    return new Recurrence(Frequency.WEEKLY, 1, zone, FOREVER);
+  }
+
+  /**
+   * Returns whether the event repeats daily or weekly.
+   */
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  /**
+   * Returns how many days or weeks lie between occurrences.
+   */
+  public int getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the time zone whose local time the occurrences keep.
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Returns how many times the event happens, or {@code FOREVER}.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the occurrences of an event first held at {@code first} that overlap {@code horizon},
+   * in order. They are generated as the iterator is advanced.
+   */
+  public Iterator<EpochMinuteRange> occurrences(EpochMinuteRange first, EpochMinuteRange horizon) {
+    return new OccurrenceIterator(first, horizon);
+  }
+
+  private final class OccurrenceIterator implements Iterator<EpochMinuteRange> {
+    private final LocalDateTime firstStart;
+    private final long duration;
+    private final EpochMinuteRange horizon;
+    private long index;
+    private EpochMinuteRange next;
+
+    OccurrenceIterator(EpochMinuteRange first, EpochMinuteRange horizon) {
+      this.firstStart = LocalDateTime.ofInstant(first.startInstant(), zone);
+      this.duration = first.duration();
+      this.horizon = horizon;
+
+      // Jump to just before the horizon by the nominal period, which daylight saving shifts by
+      // hours at most, then step to the first occurrence that actually reaches into it.
+      long periodMinutes = (long) frequency.days * interval * EpochMinuteRange.MINUTES_PER_DAY;
+      this.index = Math.max(0, Math.floorDiv(horizon.start() - first.end(), periodMinutes));
+      this.next = occurrence(index);
+      while (next != null && next.end() <= horizon.start()) {
+        advance();
+      }
+      if (next != null && next.start() >= horizon.end()) {
+        next = null;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public EpochMinuteRange next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      EpochMinuteRange current = next;
+      advance();
+      if (next != null && next.start() >= horizon.end()) {
+        next = null;
+      }
+      return current;
+    }
+
+    private void advance() {
+      index++;
+      next = occurrence(index);
+    }
+
+    private EpochMinuteRange occurrence(long index) {
+      if (index >= count) {
+        return null;
+      }
+      Instant start = firstStart.plusDays(index * frequency.days * interval)
+          .atZone(zone).toInstant();
+      long startMinute = EpochMinuteRange.toEpochMinute(start);
+      return EpochMinuteRange.fromStartEnd(startMinute, startMinute + duration);
+    }
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Recurrence)) {
+      return false;
+    }
+    Recurrence that = (Recurrence) other;
+    return frequency == that.frequency && interval == that.interval && zone.equals(that.zone)
+        && count == that.count;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((frequency.hashCode() * 31 + interval) * 31 + zone.hashCode()) * 31 + count;
+  }
+
+  @Override
+  public String toString() {
+    String times = count == FOREVER ? "forever" : count + " times";
+    return String.format("every %d %s in %s, %s", interval, frequency, zone, times);
+  }
+}
@@ -0,0 +1,180 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * RoomPool is a set of rooms a meeting can be held in, together with when each of them is free.
+ * The free times of every room in the pool go into one interval tree, kept as arrays sorted by
+ * start, where each node also records the latest end and the largest capacity in its subtree. A
+ * query skips any subtree that ends too early or whose rooms are all too small, so its cost grows
+ * with the number of free times that could actually hold the meeting, not with the size of the
+ * pool.
+ *
+ * The free times are read from an {@code EventIndex} when the pool is built. A pool does not see
+ * later bookings; build a new one when the calendar changes.
+ */
+public final class RoomPool {
+  private final List<Room> rooms;
+
+  // The free times of every room sorted by start; {@code roomOf} and {@code capacityOf} say whose.
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] roomOf;
+  private final int[] capacityOf;
+
+  // For the implicit tree over each range [low, high), stored at its middle (low + high) / 2.
+  private final int[] maxEnd;
+  private final int[] maxCapacity;
+
+  /**
+   * Creates a pool of {@code rooms}, reading when each is booked from {@code index}.
+   */
+  public RoomPool(Collection<Room> rooms, EventIndex index) {
+    this.rooms = Collections.unmodifiableList(new ArrayList<>(rooms));
+
+    IntervalSet freeTimes = new IntervalSet();
+    IntervalSet busyTimes = new IntervalSet();
+    IntervalSet roomFreeTimes = new IntervalSet();
+    int[] owners = new int[8];
+    for (int r = 0; r < this.rooms.size(); r++) {
+      busyTimes.clear();
+      index.appendMergedBusyTimes(
+          AttendeeDictionary.lookup(this.rooms.get(r).getName()), busyTimes);
+      busyTimes.complement(TimeRange.WHOLE_DAY.start(), TimeRange.WHOLE_DAY.end(), roomFreeTimes);
+      for (int i = 0; i < roomFreeTimes.size(); i++) {
+        if (freeTimes.size() == owners.length) {
+          owners = Arrays.copyOf(owners, owners.length * 2);
+        }
+        owners[freeTimes.size()] = r;
+        freeTimes.add(roomFreeTimes.start(i), roomFreeTimes.end(i));
+      }
+    }
+
+    int count = freeTimes.size();
+    long[] order = new long[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = ((long) freeTimes.start(i) << 32) | i;
+    }
+    Arrays.sort(order);
+
+    starts = new int[count];
+    ends = new int[count];
+    roomOf = new int[count];
+    capacityOf = new int[count];
+    for (int i = 0; i < count; i++) {
+      int original = (int) order[i];
+      starts[i] = freeTimes.start(original);
+      ends[i] = freeTimes.end(original);
+      roomOf[i] = owners[original];
+      capacityOf[i] = this.rooms.get(roomOf[i]).getCapacity();
+    }
+
+    maxEnd = new int[count];
+    maxCapacity = new int[count];
+    augment(0, count);
+  }
+
+  /**
+   * Returns a read-only list of the rooms in the pool.
+   */
+  public List<Room> getRooms() {
+    return rooms;
+  }
+
+  /**
+   * Returns the smallest room that holds at least {@code capacity} people and is free for all of
+   * {@code when}, or null if there is none.
+   */
+  public Room roomFor(TimeRange when, int capacity) {
+    int[] best = {-1};
+    visit(0, starts.length, when.start(), when.end(), when.duration(), capacity, i -> {
+      if (starts[i] <= when.start() && ends[i] >= when.end()
+          && (best[0] < 0 || capacityOf[i] < capacityOf[best[0]])) {
+        best[0] = i;
+      }
+    });
+    return best[0] < 0 ? null : rooms.get(roomOf[best[0]]);
+  }
+
+  /**
+   * Appends to {@code out} the minutes within {@code [from, to)} at which a meeting of
+   * {@code duration} could start in some room that holds at least {@code capacity} people, and
+   * stay in that room until it ends. The appended intervals are not sorted or merged.
+   */
+  void appendStarts(int from, int to, long duration, int capacity, IntervalSet out) {
+    visit(0, starts.length, from, to, duration, capacity, i -> {
+      int start = Math.max(starts[i], from);
+      int end = Math.min(ends[i], to);
+      if (end - start >= duration) {
+        out.add(start, (int) (end - duration + 1));
+      }
+    });
+  }
+
+  /**
+   * Gives {@code sink} every free time in {@code [low, high)} of a room holding at least
+   * {@code capacity} that overlaps {@code [from, to)} by at least {@code duration} minutes could,
+   * judging by its bounds alone. Callers check the overlap itself.
+   */
+  private void visit(int low, int high, int from, int to, long duration, int capacity,
+      IntConsumer sink) {
+    if (low >= high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEnd[mid] < from + duration || maxCapacity[mid] < capacity) {
+      return;
+    }
+
+    visit(low, mid, from, to, duration, capacity, sink);
+    // Everything from here on starts at or after {@code starts[mid]}.
+    if (starts[mid] > to - duration) {
+      return;
+    }
+    if (capacityOf[mid] >= capacity && ends[mid] >= from + duration) {
+      sink.accept(mid);
+    }
+    visit(mid + 1, high, from, to, duration, capacity, sink);
+  }
+
+  private void augment(int low, int high) {
+    if (low >= high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    augment(low, mid);
+    augment(mid + 1, high);
+
+    maxEnd[mid] = ends[mid];
+    maxCapacity[mid] = capacityOf[mid];
+    if (low < mid) {
+      int left = (low + mid) >>> 1;
+      maxEnd[mid] = Math.max(maxEnd[mid], maxEnd[left]);
+      maxCapacity[mid] = Math.max(maxCapacity[mid], maxCapacity[left]);
+    }
+    if (mid + 1 < high) {
+      int right = (mid + 1 + high) >>> 1;
+      maxEnd[mid] = Math.max(maxEnd[mid], maxEnd[right]);
+      maxCapacity[mid] = Math.max(maxCapacity[mid], maxCapacity[right]);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * SlotRanker picks the best few meeting slots out of the required attendees' free windows. Slots
+ * are exactly as long as the meeting and start on a {@code SLOT_STEP} grid or flush against either
+ * end of a window. They are ranked by, in order:
+ *
+ *     most optional attendees free for the whole slot
+ *     fewest minutes outside the preferred hours
+ *     fewest leftover gaps in the window too short for another meeting of the same length
+ *     earliest start
+ *
+ * Slots are scanned by start and kept in a priority queue bounded to the number wanted, with the
+ * worst kept slot on top. The scan stops as soon as no later slot could beat that one, which is
+ * usually long before the end of the day.
+ */
+final class SlotRanker {
+  // Minutes between the candidate starts inside a window.
+  static final int SLOT_STEP = 15;
+
+  private static final Comparator<Slot> BEST_FIRST = new Comparator<Slot>() {
+    @Override
+    public int compare(Slot a, Slot b) {
+      if (a.optionals != b.optionals) {
+        return Integer.compare(b.optionals, a.optionals);
+      }
+      if (a.outside != b.outside) {
+        return Integer.compare(a.outside, b.outside);
+      }
+      if (a.scraps != b.scraps) {
+        return Integer.compare(a.scraps, b.scraps);
+      }
+      return Integer.compare(a.start, b.start);
+    }
+  };
+
+  private final int duration;
+  private final TimeRange preferredHours;
+  // Each optional attendee's merged busy times, and how far the scan has got through them.
+  private final IntervalSet[] optionalBusyTimes;
+  private final int[] cursors;
+  // Optional attendees on no event, who are free for every slot.
+  private final int alwaysFree;
+
+  /**
+   * Prepares to rank slots of {@code duration} minutes for a meeting with {@code optionalCount}
+   * optional attendees, of whom those with IDs {@code optionals} may be busy.
+   */
+  SlotRanker(int duration, TimeRange preferredHours, int[] optionals, int optionalCount,
+      EventIndex index) {
+    this.duration = duration;
+    this.preferredHours = preferredHours;
+    this.optionalBusyTimes = new IntervalSet[optionals.length];
+    this.cursors = new int[optionals.length];
+    this.alwaysFree = optionalCount - optionals.length;
+    for (int i = 0; i < optionals.length; i++) {
+      optionalBusyTimes[i] = new IntervalSet();
+      index.appendMergedBusyTimes(optionals[i], optionalBusyTimes[i]);
+    }
+  }
+
+  /**
+   * Returns the best {@code limit} slots inside {@code windows}, best first.
+   *
+   * @param windows The free windows of the required attendees, sorted and merged.
+   * @param segments The windows split where the number of free optional attendees changes.
+   * @param freeCounts The number of optional attendees free in each segment.
+   * @param limit The most slots to return.
+   */
+  List<MeetingWindow> rank(IntervalSet windows, IntervalSet segments, int[] freeCounts,
+      int limit) {
+
+    // No slot can have more optional attendees than are free in any segment it touches, so the
+    // most free in any later segment bounds every later slot.
+    int[] mostFreeFrom = new int[segments.size() + 1];
+    for (int i = segments.size() - 1; i >= 0; i--) {
+      mostFreeFrom[i] = Math.max(mostFreeFrom[i + 1], freeCounts[i]);
+    }
+
+    PriorityQueue<Slot> kept = new PriorityQueue<>(BEST_FIRST.reversed());
+    int segment = 0;
+    scan:
+    for (int w = 0; w < windows.size(); w++) {
+      int windowStart = windows.start(w);
+      int lastStart = windows.end(w) - duration;
+      int start = windowStart;
+      while (start <= lastStart) {
+        while (segment < segments.size() && segments.end(segment) <= start) {
+          segment++;
+        }
+        if (kept.size() == limit) {
+          Slot bound = new Slot(start, mostFreeFrom[segment],
+              outsideMinutes(Math.max(start, preferredHours.start())), 0);
+          if (BEST_FIRST.compare(kept.peek(), bound) <= 0) {
+            break scan;
+          }
+        }
+
+        Slot slot = new Slot(start, freeOptionals(start), outsideMinutes(start),
+            scraps(start - windowStart) + scraps(lastStart - start));
+        if (kept.size() < limit) {
+          kept.add(slot);
+        } else if (BEST_FIRST.compare(slot, kept.peek()) < 0) {
+          kept.poll();
+          kept.add(slot);
+        }
+
+        int next = (start / SLOT_STEP + 1) * SLOT_STEP;
+        start = start < lastStart && next > lastStart ? lastStart : next;
+      }
+    }
+
+    List<Slot> best = new ArrayList<>(kept);
+    Collections.sort(best, BEST_FIRST);
+    List<MeetingWindow> slots = new ArrayList<>(best.size());
+    for (Slot slot : best) {
+      slots.add(new MeetingWindow(
+          TimeRange.fromStartDuration(slot.start, duration), slot.optionals));
+    }
+    return slots;
+  }
+
+  /**
+   * Counts the optional attendees free for the whole slot starting at {@code start}. Starts must
+   * not decrease between calls.
+   */
+  private int freeOptionals(int start) {
+    int free = alwaysFree;
+    for (int i = 0; i < optionalBusyTimes.length; i++) {
+      IntervalSet busyTimes = optionalBusyTimes[i];
+      while (cursors[i] < busyTimes.size() && busyTimes.end(cursors[i]) <= start) {
+        cursors[i]++;
+      }
+      if (cursors[i] == busyTimes.size() || busyTimes.start(cursors[i]) >= start + duration) {
+        free++;
+      }
+    }
+    return free;
+  }
+
+  private int outsideMinutes(int start) {
+    int inside = Math.min(start + duration, preferredHours.end())
+        - Math.max(start, preferredHours.start());
+    return duration - Math.max(0, inside);
+  }
+
+  private int scraps(int leftover) {
+    return leftover > 0 && leftover < duration ? 1 : 0;
+  }
+
+  private static final class Slot {
+    final int start;
+    final int optionals;
+    final int outside;
+    final int scraps;
+
+    Slot(int start, int optionals, int outside, int scraps) {
+      this.start = start;
+      this.optionals = optionals;
+      this.outside = outside;
+      this.scraps = scraps;
+    }
+  }
+}
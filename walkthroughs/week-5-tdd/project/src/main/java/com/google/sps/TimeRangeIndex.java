@@ -0,0 +1,131 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TimeRangeIndex answers which of a fixed list of time ranges overlap a window, or contain a
+ * minute, without comparing the window against every range. The ranges must be sorted by start.
+ * They are kept as an interval tree laid out over that sorted order: the middle of every span of
+ * positions is the root of a subtree covering the span, and records the latest end within it. A
+ * query skips any subtree that ends before the window or starts after it, so it costs
+ * O(log n + k) for k ranges found. Windows are compared as {@code TimeRange.overlaps} would for a
+ * window that is not empty. The index is not changed once built.
+ */
+public final class TimeRangeIndex {
+  private final int[] starts;
+  private final int[] ends;
+  // For the span [low, high) of positions, the latest end in it, stored at (low + high) / 2.
+  private final int[] maxEnd;
+
+  /**
+   * Indexes {@code ranges}, which must be sorted by start.
+   */
+  public TimeRangeIndex(List<TimeRange> ranges) {
+    starts = new int[ranges.size()];
+    ends = new int[ranges.size()];
+    for (int i = 0; i < starts.length; i++) {
+      TimeRange range = ranges.get(i);
+      if (i > 0 && range.start() < starts[i - 1]) {
+        throw new IllegalArgumentException("ranges must be sorted by start");
+      }
+      starts[i] = range.start();
+      // An empty range overlaps the windows that contain its start, so it is kept as that minute.
+      ends[i] = Math.max(range.end(), range.start() + 1);
+    }
+    maxEnd = new int[starts.length];
+    augment(0, starts.length);
+  }
+
+  /**
+   * Returns the number of ranges indexed.
+   */
+  public int size() {
+    return starts.length;
+  }
+
+  /**
+   * Returns the positions of the ranges that contain {@code minute}, in ascending order.
+   */
+  public int[] stab(int minute) {
+    return overlapping(minute, minute + 1, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the positions of the ranges that overlap {@code window}, in ascending order.
+   */
+  public int[] overlapping(TimeRange window) {
+    return overlapping(window.start(), window.end(), 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the positions, in ascending order, of the ranges that overlap {@code [start, end)}.
+   *
+   * @param from The first position to consider, for resuming a listing.
+   * @param limit The most positions to return.
+   */
+  public int[] overlapping(int start, int end, int from, int limit) {
+    int[] found = new int[Math.max(0, Math.min(limit, starts.length - from))];
+    int count = collect(0, starts.length, start, end, from, found, 0);
+    return Arrays.copyOf(found, count);
+  }
+
+  /**
+   * Returns the first position at or after {@code from} whose range overlaps
+   * {@code [start, end)}, or {@code size()} if there is none.
+   */
+  public int firstOverlapping(int start, int end, int from) {
+    int[] first = new int[1];
+    return collect(0, starts.length, start, end, from, first, 0) == 1 ? first[0] : starts.length;
+  }
+
+  private int collect(int low, int high, int start, int end, int from, int[] found, int count) {
+    if (low >= high || count == found.length || high <= from) {
+      return count;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEnd[mid] <= start) {
+      return count;
+    }
+    count = collect(low, mid, start, end, from, found, count);
+    // Everything from here on starts at or after {@code starts[mid]}.
+    if (count == found.length || starts[mid] >= end) {
+      return count;
+    }
+    if (mid >= from && ends[mid] > start) {
+      found[count++] = mid;
+    }
+    return collect(mid + 1, high, start, end, from, found, count);
+  }
+
+  private void augment(int low, int high) {
+    if (low >= high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    augment(low, mid);
+    augment(mid + 1, high);
+
+    maxEnd[mid] = ends[mid];
+    if (low < mid) {
+      maxEnd[mid] = Math.max(maxEnd[mid], maxEnd[(low + mid) >>> 1]);
+    }
+    if (mid + 1 < high) {
+      maxEnd[mid] = Math.max(maxEnd[mid], maxEnd[(mid + 1 + high) >>> 1]);
+    }
+  }
+}
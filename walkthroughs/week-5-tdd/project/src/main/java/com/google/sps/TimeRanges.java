@@ -0,0 +1,152 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * TimeRanges Class - Utilities that work on whole schedules of {@code TimeRange}s at once.
+ *
+ * A schedule here is a collection of ranges sorted by start time with no two ranges overlapping,
+ * such as the free windows of one person or one group.
+ */
+public final class TimeRanges {
+
+  private TimeRanges() {}
+
+  /**
+   * Function intersectAll
+   * Finds the times that every one of the given schedules has in common. The schedules are merged
+   * in a single pass over their endpoints, keeping one cursor per schedule in a priority queue, so
+   * the work is O(n log k) for n ranges spread across k schedules.
+   *
+   * @param schedules The schedules to intersect. Each must be sorted by start with no overlaps.
+   * @param minDuration The minimum length of a range in the result.
+   * @return The sorted times common to every schedule that last at least {@code minDuration}.
+   *     Ranges that touch are joined. An empty list of schedules has nothing in common.
+   * @throws IllegalArgumentException if a schedule is out of order or overlaps itself.
+   */
+  public static List<TimeRange> intersectAll(
+      Collection<? extends Collection<TimeRange>> schedules, long minDuration) {
+    List<TimeRange> intersections = new ArrayList<>();
+    if (schedules.isEmpty()) {
+      return intersections;
+    }
+
+    PriorityQueue<Cursor> cursors = new PriorityQueue<>(schedules.size());
+    for (Collection<TimeRange> schedule : schedules) {
+      Iterator<TimeRange> ranges = schedule.iterator();
+      if (!ranges.hasNext()) {
+        // One schedule with no time at all leaves nothing in common.
+        return intersections;
+      }
+      cursors.add(new Cursor(ranges));
+    }
+
+    int open = 0;
+    int openedAt = 0;
+    int pendingStart = -1;
+    int pendingEnd = -1;
+    while (!cursors.isEmpty()) {
+      Cursor cursor = cursors.poll();
+      int time = cursor.time();
+      if (cursor.atStart) {
+        open++;
+        if (open == schedules.size()) {
+          openedAt = time;
+        }
+      } else {
+        if (open == schedules.size() && openedAt < time) {
+          // Join ranges that touch so a boundary in one schedule does not split a common window.
+          if (pendingEnd == openedAt) {
+            pendingEnd = time;
+          } else {
+            addIfLongEnough(intersections, pendingStart, pendingEnd, minDuration);
+            pendingStart = openedAt;
+            pendingEnd = time;
+          }
+        }
+        open--;
+      }
+
+      if (cursor.advance()) {
+        cursors.add(cursor);
+      } else {
+        // This schedule has run out, so no later time can be common to all of them.
+        break;
+      }
+    }
+    addIfLongEnough(intersections, pendingStart, pendingEnd, minDuration);
+    return intersections;
+  }
+
+  private static void addIfLongEnough(
+      List<TimeRange> ranges, int start, int end, long minDuration) {
+    if (start >= 0 && end - start >= minDuration) {
+      ranges.add(TimeRange.fromStartEnd(start, end, false));
+    }
+  }
+
+  /**
+   * Walks the endpoints of one schedule in order: the start of a range, then its end, then the
+   * start of the next range. Ends sort ahead of starts at the same time, so ranges are half-open.
+   */
+  private static final class Cursor implements Comparable<Cursor> {
+    private final Iterator<TimeRange> ranges;
+    private TimeRange current;
+    private boolean atStart = true;
+
+    Cursor(Iterator<TimeRange> ranges) {
+      this.ranges = ranges;
+      this.current = ranges.next();
+    }
+
+    int time() {
+      return atStart ? current.start() : current.end();
+    }
+
+    /** Moves to the next endpoint. Returns false once the schedule has been used up. */
+    boolean advance() {
+      if (atStart) {
+        atStart = false;
+        return true;
+      }
+      if (!ranges.hasNext()) {
+        return false;
+      }
+      TimeRange next = ranges.next();
+      if (next.start() < current.end()) {
+        throw new IllegalArgumentException(
+            "Schedule is not sorted or overlaps itself: " + current + " then " + next);
+      }
+      current = next;
+      atStart = true;
+      return true;
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      int byTime = Integer.compare(time(), other.time());
+      if (byTime != 0) {
+        return byTime;
+      }
+      return Boolean.compare(atStart, other.atStart);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * WorkingHours describes when one person can be booked: the same local start and end time on each
+ * of their working days, in their own time zone. Daylight saving changes are applied per day, so a
+ * 9:00 start stays at 9:00 local time all year. Working hours are considered read-only.
+ */
+public final class WorkingHours {
+  private final ZoneId zone;
+  private final LocalTime start;
+  private final LocalTime end;
+  private final Set<DayOfWeek> days;
+
+  /**
+   * Creates new working hours.
+   *
+   * @param zone The time zone the times are given in. Must be non-null.
+   * @param start The local time the working day starts. Must be non-null.
+   * @param end The local time the working day ends. Must be after {@code start}.
+   * @param days The days of the week that are worked. Must be non-null.
+   */
+  public WorkingHours(ZoneId zone, LocalTime start, LocalTime end, Collection<DayOfWeek> days) {
+    if (zone == null || start == null || end == null) {
+      throw new IllegalArgumentException("zone, start and end cannot be null");
+    }
+
+    if (!end.isAfter(start)) {
+      throw new IllegalArgumentException("end must be after start");
+    }
+
+    if (days == null) {
+      throw new IllegalArgumentException("days cannot be null. Use empty array instead.");
+    }
+
+    this.zone = zone;
+    this.start = start;
+    this.end = end;
+    this.days = days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+  }
+
+  /**
+   * Returns working hours from {@code start} to {@code end}, Monday to Friday, in {@code zone}.
+   */
+  public static WorkingHours weekdays(ZoneId zone, LocalTime start, LocalTime end) {
+    return new WorkingHours(zone, start, end, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+  }
+
+  /**
+   * Returns the time zone the working hours are given in.
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Returns the local time each working day starts.
+   */
+  public LocalTime getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the local time each working day ends.
+   */
+  public LocalTime getEnd() {
+    return end;
+  }
+
+  /**
+   * Returns a read-only set of the days of the week that are worked.
+   */
+  public Set<DayOfWeek> getDays() {
+    return Collections.unmodifiableSet(days);
+  }
+
+  /**
+   * Appends to {@code out} the working time within {@code [from, from + length)} epoch minutes, as
+   * minutes relative to {@code from}. The appended intervals are sorted and do not overlap.
+   */
+  void appendWorkingTime(long from, int length, IntervalSet out) {
+    long to = from + length;
+    LocalDate day = localDate(from).minusDays(1);
+    LocalDate lastDay = localDate(to);
+    for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+      if (!days.contains(day.getDayOfWeek())) {
+        continue;
+      }
+      long workStart = epochMinute(ZonedDateTime.of(day, start, zone));
+      long workEnd = epochMinute(ZonedDateTime.of(day, end, zone));
+      long clippedStart = Math.max(workStart, from);
+      long clippedEnd = Math.min(workEnd, to);
+      if (clippedStart < clippedEnd) {
+        out.add((int) (clippedStart - from), (int) (clippedEnd - from));
+      }
+    }
+  }
+
+  private LocalDate localDate(long epochMinute) {
+    return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), zone)
+        .toLocalDate();
+  }
+
+  private static long epochMinute(ZonedDateTime time) {
+    return Math.floorDiv(time.toEpochSecond(), 60);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof WorkingHours)) {
+      return false;
+    }
+    WorkingHours that = (WorkingHours) other;
+    return zone.equals(that.zone) && start.equals(that.start) && end.equals(that.end)
+        && days.equals(that.days);
+  }
+
+  @Override
+  public int hashCode() {
+    return ((zone.hashCode() * 31 + start.hashCode()) * 31 + end.hashCode()) * 31
+        + days.hashCode();
+  }
+}
@@ -0,0 +1,128 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.EventCatalog;
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.JsonCodec;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet that answers many meeting requests in one call.
+ *
+ * POST takes a JSON array of MeetingRequests and returns a JSON array holding, for each request in
+ * the same order, the array of possible meeting times that /query would return for it. Requests
+ * are evaluated in parallel against the calendar /query uses, starting as soon as each is parsed,
+ * and each answer is written and flushed as soon as it and every answer before it are done.
+ */
+@WebServlet("/query/batch")
+public class BatchQueryServlet extends HttpServlet {
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private EventCatalog events;
+  private ForkJoinPool pool;
+  private FindMeetingQuery findMeetingQuery;
+
+  @Override
+  public void init() {
+    events = EventCatalogListener.catalog(getServletContext());
+    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    findMeetingQuery = new FindMeetingQuery(pool);
+  }
+
+  @Override
+  public void destroy() {
+    pool.shutdown();
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response)
+      throws IOException, ServletException {
+    // Answer the whole batch from one snapshot, even if the calendar is reloaded meanwhile.
+    EventIndex index = events.current().getIndex();
+    List<CompletableFuture<Collection<TimeRange>>> answers = new ArrayList<>();
+    try {
+      JsonReader reader = JsonCodec.GSON.newJsonReader(request.getReader());
+      reader.beginArray();
+      while (reader.hasNext()) {
+        if (answers.size() == MAX_BATCH_SIZE) {
+          cancelAll(answers);
+          response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+              "A batch can hold at most " + MAX_BATCH_SIZE + " requests.");
+          return;
+        }
+        MeetingRequest meetingRequest = JsonCodec.GSON.fromJson(reader, MeetingRequest.class);
+        if (meetingRequest == null) {
+          throw new JsonParseException("Expected a meeting request but was null.");
+        }
+        answers.add(CompletableFuture.supplyAsync(
+            () -> findMeetingQuery.query(index, meetingRequest), pool));
+      }
+      reader.endArray();
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonParseException("Unexpected content after the batch.");
+      }
+    } catch (JsonParseException | IllegalStateException | IOException e) {
+      cancelAll(answers);
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid batch: " + e.getMessage());
+      return;
+    }
+
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    JsonWriter writer = JsonCodec.newWriter(response.getOutputStream());
+    writer.beginArray();
+    for (CompletableFuture<Collection<TimeRange>> answer : answers) {
+      try {
+        JsonCodec.GSON.toJson(answer.get(), QueryServlet.TIME_RANGES, writer);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancelAll(answers);
+        throw new ServletException("Interrupted while answering the batch.", e);
+      } catch (ExecutionException e) {
+        cancelAll(answers);
+        throw new ServletException("Could not answer a request in the batch.", e.getCause());
+      }
+      // Let the client start on the answers it already has.
+      writer.flush();
+    }
+    writer.endArray();
+    writer.flush();
+  }
+
+  private static void cancelAll(List<CompletableFuture<Collection<TimeRange>>> answers) {
+    for (CompletableFuture<Collection<TimeRange>> answer : answers) {
+      answer.cancel(false);
+    }
+  }
+}
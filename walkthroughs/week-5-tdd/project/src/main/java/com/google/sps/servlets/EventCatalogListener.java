@@ -0,0 +1,86 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.sps.CsvEventSource;
+import com.google.sps.DatastoreEventSource;
+import com.google.sps.EventCatalog;
+import com.google.sps.EventSource;
+import com.google.sps.Events;
+import com.google.sps.JsonEventSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Loads the calendar once when the app starts and shares it with every servlet.
+ *
+ * The system property {@code sps.events} chooses where events come from: {@code datastore} for
+ * Datastore, or the path of a {@code .csv} or JSON file. Without it, the sample day in
+ * {@code Events} is used. Events from Datastore or a file are reloaded every
+ * {@code sps.events.reloadSeconds} seconds, 300 by default, or never if that is 0.
+ */
+@WebListener
+public class EventCatalogListener implements ServletContextListener {
+  private static final String CATALOG_ATTRIBUTE = EventCatalog.class.getName();
+  private static final long DEFAULT_RELOAD_SECONDS = 300;
+
+  @Override
+  public void contextInitialized(ServletContextEvent contextEvent) {
+    String location = System.getProperty("sps.events");
+    EventCatalog catalog;
+    try {
+      catalog = new EventCatalog(eventSource(location));
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not load events from " + location, e);
+    }
+
+    long reloadSeconds = Long.getLong("sps.events.reloadSeconds", DEFAULT_RELOAD_SECONDS);
+    if (location != null && reloadSeconds > 0) {
+      catalog.startReloading(reloadSeconds, TimeUnit.SECONDS);
+    }
+    contextEvent.getServletContext().setAttribute(CATALOG_ATTRIBUTE, catalog);
+  }
+
+  @Override
+  public void contextDestroyed(ServletContextEvent contextEvent) {
+    catalog(contextEvent.getServletContext()).stopReloading();
+  }
+
+  /**
+   * Returns the calendar shared by the servlets of {@code context}.
+   */
+  static EventCatalog catalog(ServletContext context) {
+    return (EventCatalog) context.getAttribute(CATALOG_ATTRIBUTE);
+  }
+
+  private static EventSource eventSource(String location) {
+    if (location == null) {
+      return EventSource.of(Arrays.asList(Events.events));
+    } else if (location.equals("datastore")) {
+      return new DatastoreEventSource(DatastoreServiceFactory.getDatastoreService());
+    } else if (location.endsWith(".csv")) {
+      return new CsvEventSource(Paths.get(location));
+    } else {
+      return new JsonEventSource(Paths.get(location));
+    }
+  }
+}
@@ -14,23 +14,234 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
-import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.Event;
+import com.google.sps.EventCatalog;
+import com.google.sps.EventSnapshot;
+import com.google.sps.JsonCodec;
+import com.google.sps.TimeRange;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+/**
+ * Servlet that lists the events on the calendar.
+ *
+ * Without any of the parameters below, GET returns every event as a JSON array. That array is
+ * serialized once per loaded calendar and the same bytes are sent to every client until the
+ * calendar is reloaded. Other parameters are ignored.
+ *
+ * Any of the following parameters asks for a page instead, returned as
+ * {@code {"events": [...], "cursor": "..."}} and written as it is read from the calendar:
+ * {@code attendee}, repeatable, keeps the events of any of those people; {@code start} and
+ * {@code end}, in minutes of the day, keep the events that overlap that window; {@code limit} sets
+ * the page size; and {@code cursor} resumes from the cursor returned with the previous page. The
+ * cursor is omitted once the last page has been sent. Events are listed by start time. A cursor
+ * only works while the calendar is unchanged; after a reload that changes the events, it is
+ * rejected with 400 Bad Request and the listing has to start again.
+ */
 @WebServlet("/get-events")
 public class GetEventsServlet extends HttpServlet {
+  private static final Type EVENTS = new TypeToken<List<Event>>() {}.getType();
+  private static final TypeAdapter<Event> EVENT_ADAPTER = JsonCodec.GSON.getAdapter(Event.class);
+
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_ATTENDEES = 100;
+  private static final List<String> PAGE_PARAMETERS =
+      Arrays.asList("attendee", "start", "end", "limit", "cursor");
+
+  private EventCatalog events;
+
+  // The full listing of the calendar it was serialized from.
+  private volatile SerializedEvents allEvents;
+
   @Override
-  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
-    String jsonResponse = gson.toJson(Events.events);
+  public void init() {
+    events = EventCatalogListener.catalog(getServletContext());
+  }
 
-    // Send the JSON back as the response
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    EventSnapshot snapshot = events.current();
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    if (!asksForPage(request)) {
+      byte[] body = serializedAll(snapshot);
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+      return;
+    }
+
+    Collection<String> attendees;
+    TimeRange window;
+    int limit;
+    int cursor;
+    try {
+      attendees = parseAttendees(request.getParameterValues("attendee"));
+      window = parseWindow(request.getParameter("start"), request.getParameter("end"));
+      limit = parseLimit(request.getParameter("limit"));
+      cursor = parseCursor(request.getParameter("cursor"), snapshot);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    // Ask for one more than a page to learn whether another page follows.
+    int[] found = snapshot.find(attendees, window, cursor, limit + 1);
+    int count = Math.min(found.length, limit);
+    List<Event> all = snapshot.getEvents();
+
+    JsonWriter writer = JsonCodec.newWriter(response.getOutputStream());
+    writer.beginObject();
+    writer.name("events").beginArray();
+    for (int i = 0; i < count; i++) {
+      EVENT_ADAPTER.write(writer, all.get(found[i]));
+    }
+    writer.endArray();
+    if (found.length > limit) {
+      writer.name("cursor").value(formatCursor(snapshot, found[limit]));
+    }
+    writer.endObject();
+    writer.flush();
+  }
+
+  /** Returns whether {@code request} has any of the parameters that ask for a page. */
+  private static boolean asksForPage(HttpServletRequest request) {
+    for (String name : PAGE_PARAMETERS) {
+      if (request.getParameter(name) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns every event of {@code snapshot} as a JSON array, serializing it only if the cached copy
+   * is of an older calendar.
+   */
+  private byte[] serializedAll(EventSnapshot snapshot) throws IOException {
+    SerializedEvents cached = allEvents;
+    if (cached != null && cached.snapshot == snapshot) {
+      return cached.json;
+    }
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    JsonCodec.write(snapshot.getEvents(), EVENTS, buffer);
+    cached = new SerializedEvents(snapshot, buffer.toByteArray());
+    allEvents = cached;
+    return cached.json;
+  }
+
+  private static Collection<String> parseAttendees(String[] attendeeParams) {
+    if (attendeeParams == null) {
+      return Collections.emptyList();
+    }
+    if (attendeeParams.length > MAX_ATTENDEES) {
+      throw new IllegalArgumentException("At most " + MAX_ATTENDEES + " attendees can be given.");
+    }
+    return Arrays.asList(attendeeParams);
+  }
+
+  private static TimeRange parseWindow(String startParam, String endParam) {
+    int start = parseMinute(startParam, "start", TimeRange.START_OF_DAY);
+    int end = parseMinute(endParam, "end", TimeRange.END_OF_DAY + 1);
+    if (end <= start) {
+      throw new IllegalArgumentException("end must come after start.");
+    }
+    return TimeRange.fromStartEnd(start, end, false);
+  }
+
+  private static int parseMinute(String minuteParam, String name, int defaultMinute) {
+    if (minuteParam == null || minuteParam.isEmpty()) {
+      return defaultMinute;
+    }
+
+    int minute;
+    try {
+      minute = Integer.parseInt(minuteParam);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + " must be a number.");
+    }
+
+    if (minute < TimeRange.START_OF_DAY || minute > TimeRange.END_OF_DAY + 1) {
+      throw new IllegalArgumentException(name + " must be a minute of the day.");
+    }
+    return minute;
+  }
+
+  private static int parseLimit(String limitParam) {
+    if (limitParam == null || limitParam.isEmpty()) {
+      return DEFAULT_PAGE_SIZE;
+    }
+
+    int limit;
+    try {
+      limit = Integer.parseInt(limitParam);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("limit must be a number.");
+    }
+
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+    }
+    return limit;
+  }
+
+  /** Returns a cursor for resuming at {@code position} in {@code snapshot}'s events. */
+  private static String formatCursor(EventSnapshot snapshot, int position) {
+    return Long.toHexString(snapshot.fingerprint()) + "." + position;
+  }
+
+  /**
+   * Returns the position {@code cursorParam} resumes at. A cursor issued for a different calendar
+   * is rejected, since its position may now point at other events.
+   */
+  private static int parseCursor(String cursorParam, EventSnapshot snapshot) {
+    if (cursorParam == null || cursorParam.isEmpty()) {
+      return 0;
+    }
+
+    int dot = cursorParam.indexOf('.');
+    int cursor = -1;
+    long fingerprint = 0;
+    try {
+      if (dot > 0) {
+        fingerprint = Long.parseUnsignedLong(cursorParam.substring(0, dot), 16);
+        cursor = Integer.parseInt(cursorParam.substring(dot + 1));
+      }
+    } catch (NumberFormatException e) {
+      // Reported below.
+    }
+    if (cursor < 0) {
+      throw new IllegalArgumentException("Invalid cursor.");
+    }
+
+    if (fingerprint != snapshot.fingerprint()) {
+      throw new IllegalArgumentException(
+          "The calendar has changed since this cursor was issued; start again without it.");
+    }
+    return cursor;
+  }
+
+  /** The JSON listing of every event in one calendar snapshot. */
+  private static final class SerializedEvents {
+    final EventSnapshot snapshot;
+    final byte[] json;
+
+    SerializedEvents(EventSnapshot snapshot, byte[] json) {
+      this.snapshot = snapshot;
+      this.json = json;
+    }
   }
 }
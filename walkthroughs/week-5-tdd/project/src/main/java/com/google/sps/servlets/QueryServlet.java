@@ -14,13 +14,14 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
+import com.google.sps.EventCatalog;
 import com.google.sps.FindMeetingQuery;
+import com.google.sps.JsonCodec;
 import com.google.sps.MeetingRequest;
 import com.google.sps.TimeRange;
-import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import java.io.IOException;
-import java.util.Arrays;
+import java.lang.reflect.Type;
 import java.util.Collection;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -29,23 +30,30 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/query")
 public class QueryServlet extends HttpServlet {
+  static final Type TIME_RANGES = new TypeToken<Collection<TimeRange>>() {}.getType();
+
+  // Everyone's busy times, indexed when the calendar is loaded and shared by every query.
+  private EventCatalog events;
+
   @Override
-  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
+  public void init() {
+    events = EventCatalogListener.catalog(getServletContext());
+  }
 
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
     // Convert the JSON to an instance of MeetingRequest.
-    MeetingRequest meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    MeetingRequest meetingRequest =
+        JsonCodec.GSON.fromJson(request.getReader(), MeetingRequest.class);
 
     // Find the possible meeting times.
     FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
     Collection<TimeRange> answer =
-        findMeetingQuery.query(Arrays.asList(Events.events), meetingRequest);
-
-    // Convert the times to JSON
-    String jsonResponse = gson.toJson(answer);
+        findMeetingQuery.query(events.current().getIndex(), meetingRequest);
 
-    // Send the JSON back as the response
+    // Send the times back as JSON
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    JsonCodec.write(answer, TIME_RANGES, response.getOutputStream());
   }
 }
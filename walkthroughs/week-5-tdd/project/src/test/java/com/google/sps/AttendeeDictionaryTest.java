@@ -0,0 +1,96 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeDictionaryTest {
+  private static final String PERSON_A = "Dictionary Person A";
+  private static final String PERSON_B = "Dictionary Person B";
+
+  @Test
+  public void sameNameSameId() {
+    int id = AttendeeDictionary.idOf(PERSON_A);
+
+    Assert.assertEquals(id, AttendeeDictionary.idOf(new String(PERSON_A)));
+    Assert.assertEquals(id, AttendeeDictionary.lookup(PERSON_A));
+    Assert.assertEquals(PERSON_A, AttendeeDictionary.nameOf(id));
+  }
+
+  @Test
+  public void lookupDoesNotAddNames() {
+    Assert.assertEquals(-1, AttendeeDictionary.lookup("Dictionary Nobody"));
+    Assert.assertEquals(0,
+        AttendeeDictionary.lookupAll(Collections.singletonList("Dictionary Nobody")).length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void idOfRejectsNull() {
+    AttendeeDictionary.idOf(null);
+  }
+
+  @Test
+  public void nullHasNoId() {
+    Assert.assertEquals(-1, AttendeeDictionary.lookup(null));
+  }
+
+  @Test
+  public void idsAreSortedAndDistinct() {
+    int[] ids = AttendeeDictionary.idsOf(Arrays.asList(PERSON_B, PERSON_A, PERSON_B));
+
+    Assert.assertEquals(2, ids.length);
+    Assert.assertTrue(ids[0] < ids[1]);
+  }
+
+  @Test
+  public void intersects() {
+    Assert.assertTrue(AttendeeDictionary.intersects(new int[] {1, 4, 9}, new int[] {2, 4}));
+    Assert.assertFalse(AttendeeDictionary.intersects(new int[] {1, 4, 9}, new int[] {2, 5, 10}));
+    Assert.assertFalse(AttendeeDictionary.intersects(new int[0], new int[] {2}));
+  }
+
+  @Test
+  public void meetingRequestDoesNotAddNames() {
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList("Dictionary Stranger", PERSON_A), 30);
+    request.addOptionalAttendee("Dictionary Optional Stranger");
+    AttendeeDictionary.idOf(PERSON_A);
+
+    Assert.assertEquals(-1, AttendeeDictionary.lookup("Dictionary Stranger"));
+    Assert.assertEquals(-1, AttendeeDictionary.lookup("Dictionary Optional Stranger"));
+    Assert.assertArrayEquals(
+        new int[] {AttendeeDictionary.lookup(PERSON_A)}, request.attendeeIds());
+    Assert.assertEquals(0, request.optionalAttendeeIds().length);
+  }
+
+  @Test
+  public void eventAttendeesReadAsNames() {
+    Event event = new Event("Sync", TimeRange.fromStartDuration(600, 30),
+        Arrays.asList(PERSON_A, PERSON_B));
+
+    Assert.assertTrue(event.getAttendees().contains(PERSON_A));
+    Assert.assertFalse(event.getAttendees().contains("Dictionary Nobody"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)),
+        event.getAttendees());
+  }
+}
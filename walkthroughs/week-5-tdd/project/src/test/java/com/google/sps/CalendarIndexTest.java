@@ -0,0 +1,183 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarIndexTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+  private static final ZoneId LONDON = ZoneId.of("Europe/London");
+  private static final LocalTime NINE = LocalTime.of(9, 0);
+  private static final LocalTime FIVE = LocalTime.of(17, 0);
+
+  private FindMeetingQuery query;
+
+  @Before
+  public void setUp() {
+    query = new FindMeetingQuery();
+  }
+
+  private static long minute(String instant) {
+    return EpochMinuteRange.toEpochMinute(Instant.parse(instant));
+  }
+
+  private static EpochMinuteRange range(String start, String end) {
+    return EpochMinuteRange.fromStartEnd(minute(start), minute(end));
+  }
+
+  @Test
+  public void eventAcrossMidnightBlocksBothDays() {
+    // Events  :       |--A--|
+    // Days    : |-----Mon---|---Tue----|
+    // Options : |--1--|     |--2-------|
+    CalendarIndex calendar = new CalendarIndex(Arrays.asList(new CalendarEvent("Night shift",
+        range("2020-07-06T22:00:00Z", "2020-07-07T06:00:00Z"), Arrays.asList(PERSON_A))));
+    EpochMinuteRange horizon = range("2020-07-06T00:00:00Z", "2020-07-08T00:00:00Z");
+
+    List<EpochMinuteRange> actual =
+        query.query(calendar, new MeetingRequest(Arrays.asList(PERSON_A), 60), horizon);
+
+    Assert.assertEquals(Arrays.asList(range("2020-07-06T00:00:00Z", "2020-07-06T22:00:00Z"),
+        range("2020-07-07T06:00:00Z", "2020-07-08T00:00:00Z")), actual);
+  }
+
+  @Test
+  public void windowsJoinAcrossMidnight() {
+    // Free time on either side of midnight is one window, long enough for a long meeting.
+    CalendarIndex calendar = new CalendarIndex(Arrays.asList(
+        new CalendarEvent("Evening", range("2020-07-06T00:00:00Z", "2020-07-06T20:00:00Z"),
+            Arrays.asList(PERSON_A)),
+        new CalendarEvent("Morning", range("2020-07-07T04:00:00Z", "2020-07-08T00:00:00Z"),
+            Arrays.asList(PERSON_A))));
+    EpochMinuteRange horizon = range("2020-07-06T00:00:00Z", "2020-07-08T00:00:00Z");
+
+    List<EpochMinuteRange> actual =
+        query.query(calendar, new MeetingRequest(Arrays.asList(PERSON_A), 6 * 60), horizon);
+
+    Assert.assertEquals(
+        Arrays.asList(range("2020-07-06T20:00:00Z", "2020-07-07T04:00:00Z")), actual);
+  }
+
+  @Test
+  public void workingHoursInDifferentZones() {
+    // In July, 9 to 5 in New York is 13:00 to 21:00 UTC, and in London 08:00 to 16:00 UTC.
+    CalendarIndex calendar = new CalendarIndex();
+    calendar.setWorkingHours(PERSON_A, WorkingHours.weekdays(NEW_YORK, NINE, FIVE));
+    calendar.setWorkingHours(PERSON_B, WorkingHours.weekdays(LONDON, NINE, FIVE));
+    EpochMinuteRange horizon = range("2020-07-01T00:00:00Z", "2020-07-02T00:00:00Z");
+
+    List<EpochMinuteRange> actual = query.query(
+        calendar, new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 60), horizon);
+
+    Assert.assertEquals(
+        Arrays.asList(range("2020-07-01T13:00:00Z", "2020-07-01T16:00:00Z")), actual);
+  }
+
+  @Test
+  public void workingHoursFollowDaylightSaving() {
+    // New York moved its clocks forward on Sunday 2020-03-08.
+    CalendarIndex calendar = new CalendarIndex();
+    calendar.setWorkingHours(PERSON_A, WorkingHours.weekdays(NEW_YORK, NINE, FIVE));
+    EpochMinuteRange horizon = range("2020-03-06T00:00:00Z", "2020-03-10T00:00:00Z");
+
+    List<EpochMinuteRange> actual =
+        query.query(calendar, new MeetingRequest(Arrays.asList(PERSON_A), 30), horizon);
+
+    Assert.assertEquals(Arrays.asList(range("2020-03-06T14:00:00Z", "2020-03-06T22:00:00Z"),
+        range("2020-03-09T13:00:00Z", "2020-03-09T21:00:00Z")), actual);
+  }
+
+  @Test
+  public void optionalAttendeeOutsideWorkingHoursIsDropped() {
+    CalendarIndex calendar = new CalendarIndex();
+    calendar.setWorkingHours(PERSON_A, WorkingHours.weekdays(LONDON, NINE, FIVE));
+    calendar.setWorkingHours(PERSON_B, WorkingHours.weekdays(ZoneId.of("Asia/Tokyo"), NINE, FIVE));
+    EpochMinuteRange horizon = range("2020-07-01T00:00:00Z", "2020-07-02T00:00:00Z");
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+    request.addOptionalAttendee(PERSON_B);
+
+    Assert.assertEquals(Arrays.asList(range("2020-07-01T08:00:00Z", "2020-07-01T16:00:00Z")),
+        query.query(calendar, request, horizon));
+  }
+
+  @Test
+  public void removeFreesEveryDay() {
+    CalendarEvent event = new CalendarEvent("Offsite",
+        range("2020-07-06T12:00:00Z", "2020-07-08T12:00:00Z"), Arrays.asList(PERSON_A));
+    CalendarIndex calendar = new CalendarIndex(Arrays.asList(event));
+    EpochMinuteRange horizon = range("2020-07-06T00:00:00Z", "2020-07-09T00:00:00Z");
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+
+    Assert.assertTrue(calendar.remove(event));
+    Assert.assertFalse(calendar.remove(event));
+    Assert.assertEquals(Arrays.asList(horizon), query.query(calendar, request, horizon));
+  }
+
+  @Test
+  public void weeklyMeetingBlocksEveryWeek() {
+    // A weekly 10:00 New York meeting, first held in 2019, falls at 14:00 UTC in July.
+    CalendarEvent oneOnOne = new CalendarEvent("1:1",
+        range("2019-01-07T15:00:00Z", "2019-01-07T16:00:00Z"), Arrays.asList(PERSON_A),
+        Recurrence.weekly(NEW_YORK));
+    CalendarIndex calendar = new CalendarIndex(Arrays.asList(oneOnOne));
+    EpochMinuteRange horizon = range("2020-07-06T00:00:00Z", "2020-07-07T00:00:00Z");
+
+    List<EpochMinuteRange> actual =
+        query.query(calendar, new MeetingRequest(Arrays.asList(PERSON_A), 60), horizon);
+
+    Assert.assertEquals(Arrays.asList(range("2020-07-06T00:00:00Z", "2020-07-06T14:00:00Z"),
+        range("2020-07-06T15:00:00Z", "2020-07-07T00:00:00Z")), actual);
+  }
+
+  @Test
+  public void removeRecurringFreesEveryWeek() {
+    CalendarEvent standup = new CalendarEvent("Standup",
+        range("2020-07-06T09:00:00Z", "2020-07-06T09:15:00Z"), Arrays.asList(PERSON_A, PERSON_B),
+        new Recurrence(Recurrence.Frequency.DAILY, 1, LONDON, Recurrence.FOREVER));
+    CalendarIndex calendar = new CalendarIndex(Arrays.asList(standup));
+    EpochMinuteRange horizon = range("2020-08-03T00:00:00Z", "2020-08-10T00:00:00Z");
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_B), 60);
+
+    // Seven standups split the week into eight windows.
+    Assert.assertEquals(8, query.query(calendar, request, horizon).size());
+    Assert.assertTrue(calendar.remove(standup));
+    Assert.assertFalse(calendar.remove(standup));
+    Assert.assertEquals(Arrays.asList(horizon), query.query(calendar, request, horizon));
+  }
+
+  @Test
+  public void meetingLongerThanHorizon() {
+    EpochMinuteRange horizon = range("2020-07-06T00:00:00Z", "2020-07-06T01:00:00Z");
+
+    Assert.assertEquals(Collections.emptyList(), query.query(
+        new CalendarIndex(), new MeetingRequest(Arrays.asList(PERSON_A), 90), horizon));
+  }
+}
@@ -0,0 +1,114 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class DayBitmapTest {
+
+  private static TimeRange range(int start, int end) {
+    return TimeRange.fromStartEnd(start, end, false);
+  }
+
+  private static IntervalSet freeRuns(DayBitmap bitmap, long minLength) {
+    IntervalSet runs = new IntervalSet();
+    bitmap.appendFreeRuns(minLength, runs);
+    return runs;
+  }
+
+  @Test
+  public void emptyDayIsOneFreeRun() {
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.WHOLE_DAY), freeRuns(new DayBitmap(), 0).toTimeRanges());
+  }
+
+  @Test
+  public void setRangeWithinAndAcrossWords() {
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setRange(10, 20);
+    bitmap.setRange(60, 200);
+
+    Assert.assertFalse(bitmap.isBusy(9));
+    Assert.assertTrue(bitmap.isBusy(10));
+    Assert.assertTrue(bitmap.isBusy(19));
+    Assert.assertFalse(bitmap.isBusy(20));
+    Assert.assertTrue(bitmap.isBusy(64));
+    Assert.assertTrue(bitmap.isBusy(128));
+    Assert.assertTrue(bitmap.isBusy(199));
+    Assert.assertFalse(bitmap.isBusy(200));
+  }
+
+  @Test
+  public void rangesOutsideTheDayAreClipped() {
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setRange(-30, 30);
+    bitmap.setRange(1400, 1500);
+
+    Assert.assertEquals(Arrays.asList(range(30, 1400)), freeRuns(bitmap, 0).toTimeRanges());
+  }
+
+  @Test
+  public void freeRunsShorterThanMinimumAreSkipped() {
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setRange(0, 100);
+    bitmap.setRange(110, 1300);
+
+    Assert.assertEquals(Arrays.asList(range(1300, 1440)), freeRuns(bitmap, 30).toTimeRanges());
+  }
+
+  @Test
+  public void fullyBusyDayHasNoFreeRuns() {
+    DayBitmap bitmap = new DayBitmap();
+    bitmap.setRange(0, 1440);
+
+    Assert.assertEquals(Collections.emptyList(), freeRuns(bitmap, 0).toTimeRanges());
+  }
+
+  @Test
+  public void orMatchesMergedComplement() {
+    Random random = new Random(7);
+    for (int trial = 0; trial < 200; trial++) {
+      DayBitmap union = new DayBitmap();
+      IntervalSet busy = new IntervalSet();
+      int people = 1 + random.nextInt(20);
+      for (int person = 0; person < people; person++) {
+        DayBitmap own = new DayBitmap();
+        for (int event = random.nextInt(6); event > 0; event--) {
+          int start = random.nextInt(1440);
+          int end = Math.min(1440, start + 1 + random.nextInt(180));
+          own.setRange(start, end);
+          busy.add(start, end);
+        }
+        union.or(own);
+      }
+
+      busy.sort();
+      busy.merge();
+      IntervalSet expected = new IntervalSet();
+      busy.complement(0, 1440, expected);
+      expected.retainAtLeast(15);
+
+      Assert.assertEquals(expected.toTimeRanges(), freeRuns(union, 15).toTimeRanges());
+    }
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventCatalogTest {
+  private static final Event MORNING = new Event("Morning",
+      TimeRange.fromStartDuration(540, 60), Arrays.asList("Person A"));
+
+  @Test
+  public void reloadSwapsInNewSnapshot() throws IOException {
+    List<Event> events = new ArrayList<>();
+    EventCatalog catalog = new EventCatalog(EventSource.of(events));
+    EventSnapshot first = catalog.current();
+
+    events.add(MORNING);
+    catalog.reload();
+
+    Assert.assertTrue(first.getEvents().isEmpty());
+    Assert.assertEquals(Arrays.asList(MORNING), catalog.current().getEvents());
+  }
+
+  @Test
+  public void failedReloadKeepsCurrentSnapshot() throws IOException {
+    boolean[] failing = {false};
+    EventCatalog catalog = new EventCatalog(sink -> {
+      if (failing[0]) {
+        sink.accept(MORNING);
+        throw new IOException("source went away");
+      }
+    });
+    EventSnapshot first = catalog.current();
+
+    failing[0] = true;
+    try {
+      catalog.reload();
+      Assert.fail("reload should have failed");
+    } catch (IOException expected) {
+      // The half-read events must not be visible.
+    }
+
+    Assert.assertEquals(first, catalog.current());
+    Assert.assertTrue(catalog.current().getEvents().isEmpty());
+  }
+}
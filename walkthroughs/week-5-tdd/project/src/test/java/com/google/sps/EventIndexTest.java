@@ -0,0 +1,216 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIndexTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final TimeRange MORNING = TimeRange.fromStartDuration(540, 60);
+  private static final TimeRange NOON = TimeRange.fromStartDuration(720, 30);
+  private static final TimeRange EVENING = TimeRange.fromStartDuration(1080, 90);
+
+  private static EventIndex.Group group(String... attendees) {
+    return new EventIndex.Group(AttendeeDictionary.idsOf(Arrays.asList(attendees)));
+  }
+
+  @Test
+  public void busyTimesAreSortedPerAttendee() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Evening", EVENING, Arrays.asList(PERSON_A)),
+        new Event("Morning", MORNING, Arrays.asList(PERSON_A, PERSON_B))));
+
+    Assert.assertEquals(Arrays.asList(MORNING, EVENING), index.busyTimes(PERSON_A));
+    Assert.assertEquals(Arrays.asList(MORNING), index.busyTimes(PERSON_B));
+  }
+
+  @Test
+  public void unknownAttendeeIsNeverBusy() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Morning", MORNING, Arrays.asList(PERSON_A))));
+
+    Assert.assertEquals(Collections.emptyList(), index.busyTimes(PERSON_B));
+  }
+
+  @Test
+  public void addGrowsScheduleTable() {
+    EventIndex index = new EventIndex();
+    for (int i = 0; i < 100; i++) {
+      index.add(new Event("Event " + i, MORNING, Arrays.asList("Attendee " + i)));
+    }
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(Arrays.asList(MORNING), index.busyTimes("Attendee " + i));
+    }
+  }
+
+  @Test
+  public void addKeepsOrder() {
+    EventIndex index = new EventIndex();
+    index.add(new Event("Evening", EVENING, Arrays.asList(PERSON_A)));
+    index.add(new Event("Morning", MORNING, Arrays.asList(PERSON_A)));
+    index.add(new Event("Noon", NOON, Arrays.asList(PERSON_A)));
+
+    Assert.assertEquals(Arrays.asList(MORNING, NOON, EVENING), index.busyTimes(PERSON_A));
+  }
+
+  @Test
+  public void removeDropsOnlyThatEvent() {
+    Event morning = new Event("Morning", MORNING, Arrays.asList(PERSON_A, PERSON_B));
+    EventIndex index = new EventIndex(Arrays.asList(morning,
+        new Event("Noon", NOON, Arrays.asList(PERSON_A))));
+
+    Assert.assertTrue(index.remove(morning));
+
+    Assert.assertEquals(Arrays.asList(NOON), index.busyTimes(PERSON_A));
+    Assert.assertEquals(Collections.emptyList(), index.busyTimes(PERSON_B));
+    Assert.assertFalse(index.remove(morning));
+  }
+
+  @Test
+  public void mergedBusyTimesJoinOverlappingEvents() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Morning", MORNING, Arrays.asList(PERSON_A)),
+        new Event("Late morning", TimeRange.fromStartDuration(570, 60), Arrays.asList(PERSON_A)),
+        new Event("Noon", NOON, Arrays.asList(PERSON_A))));
+
+    IntervalSet merged = new IntervalSet();
+    index.appendMergedBusyTimes(AttendeeDictionary.lookup(PERSON_A), merged);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(540, 630, false), NOON),
+        merged.toTimeRanges());
+  }
+
+  @Test
+  public void groupIgnoresOrderAndDuplicates() {
+    Assert.assertEquals(group(PERSON_A, PERSON_B), group(PERSON_B, PERSON_A, PERSON_B));
+  }
+
+  @Test
+  public void addForgetsCachedGroups() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Morning", MORNING, Arrays.asList(PERSON_A))));
+    FindMeetingQuery query = new FindMeetingQuery();
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    query.query(index, request);
+
+    index.add(new Event("Evening", EVENING, Arrays.asList(PERSON_A)));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, 540, false),
+        TimeRange.fromStartEnd(600, 1080, false),
+        TimeRange.fromStartEnd(1170, TimeRange.END_OF_DAY, true)),
+        query.query(index, request));
+  }
+
+  @Test
+  public void freeTimesFromBeforeAChangeAreNotCached() {
+    EventIndex index = new EventIndex();
+    EventIndex.Group group = group(PERSON_A);
+    long generation = index.generation();
+
+    index.add(new Event("Morning", MORNING, Arrays.asList(PERSON_A)));
+    index.cacheFreeTimes(group, new int[] {0, 1440}, generation);
+
+    Assert.assertNull(index.cachedFreeTimes(group));
+  }
+
+  @Test
+  public void leastRecentlyUsedGroupIsEvicted() {
+    EventIndex index = new EventIndex();
+    EventIndex.Group first = group("Person 0");
+    index.cacheFreeTimes(first, new int[0], index.generation());
+    for (int i = 1; i <= EventIndex.GROUP_CACHE_SIZE; i++) {
+      index.cacheFreeTimes(
+          group("Person " + i), new int[0], index.generation());
+    }
+
+    Assert.assertNull(index.cachedFreeTimes(first));
+    Assert.assertNotNull(
+        index.cachedFreeTimes(group("Person " + EventIndex.GROUP_CACHE_SIZE)));
+  }
+
+  @Test
+  public void freeTimesFollowAddAndRemove() {
+    // Removing the morning event must not free the part the late morning event still covers.
+    TimeRange lateMorning = TimeRange.fromStartDuration(570, 60);
+    Event morning = new Event("Morning", MORNING, Arrays.asList(PERSON_A));
+    EventIndex index = new EventIndex();
+    index.add(morning);
+    index.add(new Event("Late morning", lateMorning, Arrays.asList(PERSON_A)));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, 540, false),
+        TimeRange.fromStartEnd(630, TimeRange.END_OF_DAY, true)), index.freeTimes(PERSON_A));
+
+    index.remove(morning);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, 570, false),
+        TimeRange.fromStartEnd(630, TimeRange.END_OF_DAY, true)), index.freeTimes(PERSON_A));
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY), index.freeTimes(PERSON_B));
+  }
+
+  @Test
+  public void changeKeepsOtherGroupsCached() {
+    EventIndex index = new EventIndex();
+    index.cacheFreeTimes(group(PERSON_A), new int[] {0, 1440}, index.generation());
+    index.cacheFreeTimes(group(PERSON_A, PERSON_B), new int[] {0, 1440}, index.generation());
+
+    index.add(new Event("Noon", NOON, Arrays.asList(PERSON_B)));
+
+    Assert.assertNotNull(index.cachedFreeTimes(group(PERSON_A)));
+    Assert.assertNull(index.cachedFreeTimes(group(PERSON_A, PERSON_B)));
+  }
+
+  @Test
+  public void incrementalFreeTimesMatchRebuiltIndex() {
+    Random random = new Random(25);
+    EventIndex index = new EventIndex();
+    List<Event> events = new ArrayList<>();
+    for (int step = 0; step < 2000; step++) {
+      if (!events.isEmpty() && random.nextInt(3) == 0) {
+        Assert.assertTrue(index.remove(events.remove(random.nextInt(events.size()))));
+      } else {
+        int start = random.nextInt(1380);
+        Event event = new Event("Event " + step,
+            TimeRange.fromStartDuration(start, random.nextInt(60)), Arrays.asList(PERSON_A));
+        events.add(event);
+        index.add(event);
+      }
+
+      // Asking for the bitmap builds it, so the next add keeps it up to date instead.
+      EventIndex rebuilt = new EventIndex(events);
+      int attendee = AttendeeDictionary.lookup(PERSON_A);
+      DayBitmap expectedMinutes = new DayBitmap();
+      rebuilt.orBusyMinutes(attendee, expectedMinutes);
+      DayBitmap actualMinutes = new DayBitmap();
+      index.orBusyMinutes(attendee, actualMinutes);
+      for (int minute = 0; minute < TimeRange.WHOLE_DAY.end(); minute++) {
+        Assert.assertEquals(expectedMinutes.isBusy(minute), actualMinutes.isBusy(minute));
+      }
+      Assert.assertEquals(rebuilt.freeTimes(PERSON_A), index.freeTimes(PERSON_A));
+    }
+  }
+}
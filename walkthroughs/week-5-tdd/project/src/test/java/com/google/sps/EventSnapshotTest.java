@@ -0,0 +1,110 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventSnapshotTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  // Given out of order; the snapshot sorts them by start as positions 0 to 3.
+  private static final Event LONG_MORNING = new Event("Offsite",
+      TimeRange.fromStartDuration(480, 240), Arrays.asList(PERSON_C));
+  private static final Event MORNING = new Event("Morning",
+      TimeRange.fromStartDuration(540, 60), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event NOON = new Event("Noon",
+      TimeRange.fromStartDuration(720, 30), Arrays.asList(PERSON_A));
+  private static final Event EVENING = new Event("Evening",
+      TimeRange.fromStartDuration(1080, 90), Arrays.asList(PERSON_B));
+
+  private EventSnapshot snapshot;
+
+  @Before
+  public void setUp() throws IOException {
+    snapshot = EventSnapshot.load(
+        EventSource.of(Arrays.asList(EVENING, NOON, LONG_MORNING, MORNING)));
+  }
+
+  @Test
+  public void eventsAreSortedByStart() {
+    Assert.assertEquals(Arrays.asList(LONG_MORNING, MORNING, NOON, EVENING), snapshot.getEvents());
+  }
+
+  @Test
+  public void findEverything() {
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3},
+        snapshot.find(Collections.emptyList(), TimeRange.WHOLE_DAY, 0, 10));
+  }
+
+  @Test
+  public void findByAttendeesListsSharedEventOnce() {
+    Assert.assertArrayEquals(new int[] {1, 2, 3},
+        snapshot.find(Arrays.asList(PERSON_A, PERSON_B), TimeRange.WHOLE_DAY, 0, 10));
+  }
+
+  @Test
+  public void findUnknownAttendee() {
+    Assert.assertArrayEquals(new int[0],
+        snapshot.find(Arrays.asList("Nobody"), TimeRange.WHOLE_DAY, 0, 10));
+  }
+
+  @Test
+  public void findByWindowIncludesEventsStartingBeforeIt() {
+    // The offsite starts at 8:00 but is still going at 11:00.
+    TimeRange lateMorning = TimeRange.fromStartEnd(660, 750, false);
+
+    Assert.assertArrayEquals(new int[] {0, 2},
+        snapshot.find(Collections.emptyList(), lateMorning, 0, 10));
+  }
+
+  @Test
+  public void findPagesFromCursor() {
+    Assert.assertArrayEquals(new int[] {0, 1},
+        snapshot.find(Collections.emptyList(), TimeRange.WHOLE_DAY, 0, 2));
+    Assert.assertArrayEquals(new int[] {2, 3},
+        snapshot.find(Collections.emptyList(), TimeRange.WHOLE_DAY, 2, 2));
+    Assert.assertArrayEquals(new int[] {3},
+        snapshot.find(Arrays.asList(PERSON_B), TimeRange.WHOLE_DAY, 2, 2));
+  }
+
+  @Test
+  public void reloadingSameEventsKeepsFingerprint() throws IOException {
+    EventSnapshot reloaded = EventSnapshot.load(
+        EventSource.of(Arrays.asList(MORNING, EVENING, LONG_MORNING, NOON)));
+
+    Assert.assertEquals(snapshot.fingerprint(), reloaded.fingerprint());
+  }
+
+  @Test
+  public void changedEventsChangeFingerprint() throws IOException {
+    Event lateNoon = new Event("Noon", TimeRange.fromStartDuration(735, 30),
+        Arrays.asList(PERSON_A));
+    EventSnapshot reloaded = EventSnapshot.load(
+        EventSource.of(Arrays.asList(EVENING, lateNoon, LONG_MORNING, MORNING)));
+
+    Assert.assertNotEquals(snapshot.fingerprint(), reloaded.fingerprint());
+  }
+}
@@ -0,0 +1,111 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventSourceTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final Event MORNING = new Event("Morning",
+      TimeRange.fromStartDuration(540, 60), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event NOON = new Event("Lunch, then coffee",
+      TimeRange.fromStartDuration(720, 30), Arrays.asList(PERSON_A));
+
+  private static Path write(String suffix, String content) throws IOException {
+    Path path = Files.createTempFile("events", suffix);
+    path.toFile().deleteOnExit();
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  private static List<Event> readAll(EventSource source) throws IOException {
+    List<Event> events = new ArrayList<>();
+    source.forEachEvent(events::add);
+    return events;
+  }
+
+  @Test
+  public void jsonReadsWhatGetEventsWrites() throws IOException {
+    Path path = write(".json", JsonCodec.GSON.toJson(new Event[] {MORNING, NOON}));
+
+    Assert.assertEquals(Arrays.asList(MORNING, NOON), readAll(new JsonEventSource(path)));
+  }
+
+  @Test(expected = IOException.class)
+  public void jsonMustBeAnArray() throws IOException {
+    readAll(new JsonEventSource(write(".json", "{\"title\": \"Morning\"}")));
+  }
+
+  @Test(expected = IOException.class)
+  public void jsonEventNeedsATitle() throws IOException {
+    readAll(new JsonEventSource(
+        write(".json", "[{\"when\": {\"start\": 540, \"duration\": 60}, \"attendees\": []}]")));
+  }
+
+  @Test
+  public void csvSkipsHeaderAndHandlesQuotes() throws IOException {
+    Path path = write(".csv", CsvEventSource.HEADER + "\n"
+        + "Morning,540,60,Person A;Person B\n"
+        + "\n"
+        + "\"Lunch, then coffee\",720,30,Person A\n");
+
+    Assert.assertEquals(Arrays.asList(MORNING, NOON), readAll(new CsvEventSource(path)));
+  }
+
+  @Test
+  public void csvEventWithoutAttendees() throws IOException {
+    Path path = write(".csv", "\"Say \"\"hi\"\"\",0,15,\n");
+
+    Assert.assertEquals(Arrays.asList(new Event("Say \"hi\"",
+        TimeRange.fromStartDuration(0, 15), Collections.emptyList())),
+        readAll(new CsvEventSource(path)));
+  }
+
+  @Test(expected = IOException.class)
+  public void csvRejectsMissingFields() throws IOException {
+    readAll(new CsvEventSource(write(".csv", "Morning,540,Person A\n")));
+  }
+
+  @Test(expected = IOException.class)
+  public void csvRejectsBadNumbers() throws IOException {
+    readAll(new CsvEventSource(write(".csv", "Morning,nine,60,Person A\n")));
+  }
+
+  @Test
+  public void snapshotIndexesEveryEvent() throws IOException {
+    EventSnapshot snapshot = EventSnapshot.load(EventSource.of(Arrays.asList(MORNING, NOON)));
+
+    Assert.assertEquals(Arrays.asList(MORNING, NOON), snapshot.getEvents());
+    Assert.assertEquals(Arrays.asList(MORNING.getWhen(), NOON.getWhen()),
+        snapshot.getIndex().busyTimes(PERSON_A));
+    Assert.assertEquals(Arrays.asList(MORNING.getWhen()),
+        snapshot.getIndex().busyTimes(PERSON_B));
+  }
+}
@@ -19,6 +19,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,6 +37,7 @@ public final class FindMeetingQueryTest {
   private static final String PERSON_A = "Person A";
   private static final String PERSON_B = "Person B";
   private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
 
   // All dates are the first day of the year 2020.
   private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
@@ -418,5 +421,255 @@ public final class FindMeetingQueryTest {
     Assert.assertEquals(expected, actual);
 
   }
-}
 
+  @Test
+  public void maximizingOptionalsPrefersMostOptionalAttendees() {
+    // Everyone is only free together for half an hour, which is still long enough.
+    //
+    // Mandatory :           |--A--|
+    // Optional  : |--B---------|
+    //                                   |--C---------|
+    //                                |D|
+    // Day       : |--------------------------------|
+    // Options   :                 |3|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_C)),
+        new Event("Event 4", TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_D)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+    request.addOptionalAttendee(PERSON_D);
+
+    List<MeetingWindow> actual = query.queryMaximizingOptionals(events, request);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartEnd(TIME_0900AM, TIME_0930AM, false), 3));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void maximizingOptionalsIgnoresAttendeesFreeOneAfterAnother() {
+    // B and C are free back to back for 80 minutes, but neither alone for an hour.
+    //
+    // Optional : |--B------|  |--B-----------|
+    //            |--C--------|  |--C---------|
+    // Day      : |---------------------------|
+    // Options  : |-------------0-------------|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, 540, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartEnd(580, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, 580, false),
+            Arrays.asList(PERSON_C)),
+        new Event("Event 4", TimeRange.fromStartEnd(620, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<MeetingWindow> actual = query.queryMaximizingOptionals(events, request);
+    List<MeetingWindow> expected = Arrays.asList(new MeetingWindow(TimeRange.WHOLE_DAY, 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void maximizingOptionalsCountsAttendeesFreeForWholeWindow() {
+    // B and C are each free for part of the morning, but never together for an hour.
+    //
+    // Optional : |--B-----|
+    //                   |--C-----|
+    // Day      : |-------------------------|
+    // Options  : |--1---|          |--1-----|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_1000AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(NO_ATTENDEES, DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<MeetingWindow> actual = query.queryMaximizingOptionals(events, request);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false), 1),
+        new MeetingWindow(TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true), 1));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void maximizingOptionalsWithNoRoomForMandatory() {
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    Assert.assertEquals(Collections.emptyList(), query.queryMaximizingOptionals(events, request));
+  }
+
+  @Test
+  public void topSlotsAreEarliestWithoutShortGaps() {
+    // A slot 15 minutes into the day would leave a gap too short for another meeting.
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<MeetingWindow> actual =
+        query.queryTopSlots(new EventIndex(), request, TimeRange.WHOLE_DAY, 3);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartDuration(0, DURATION_30_MINUTES), 0),
+        new MeetingWindow(TimeRange.fromStartDuration(30, DURATION_30_MINUTES), 0),
+        new MeetingWindow(TimeRange.fromStartDuration(45, DURATION_30_MINUTES), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void topSlotsPreferPreferredHours() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    TimeRange preferred = TimeRange.fromStartEnd(TIME_0900AM, TIME_1100AM, false);
+
+    List<MeetingWindow> actual = query.queryTopSlots(new EventIndex(), request, preferred, 2);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_0900AM, DURATION_1_HOUR), 0),
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_0900AM + 15, DURATION_1_HOUR), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void topSlotsFavourOptionalAttendees() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_1000AM, false),
+            Arrays.asList(PERSON_B))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<MeetingWindow> actual = query.queryTopSlots(index, request, TimeRange.WHOLE_DAY, 1);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), 1));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void topSlotsAvoidFragmentingWindows() {
+    // Within the preferred hours, slots flush against either busy time leave no short gaps.
+    //
+    // Events    :       |--A--|            |--A--|
+    // Preferred :             |------------|
+    // Best      :             |--1--| |--2-|
+    EventIndex index = new EventIndex(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_1000AM + 120, DURATION_1_HOUR),
+            Arrays.asList(PERSON_A))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 45);
+    TimeRange preferred = TimeRange.fromStartDuration(TIME_1000AM, 120);
+
+    List<MeetingWindow> actual = query.queryTopSlots(index, request, preferred, 3);
+    List<MeetingWindow> expected = Arrays.asList(
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_1000AM, 45), 0),
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_1000AM + 75, 45), 0),
+        new MeetingWindow(TimeRange.fromStartDuration(TIME_1000AM + 15, 45), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void topSlotsMatchFullRanking() {
+    // Stopping the scan early must not change which slots come out on top.
+    Random random = new Random(23);
+    for (int round = 0; round < 20; round++) {
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 12; i++) {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - 120);
+        String person = Arrays.asList(PERSON_A, PERSON_B, PERSON_C).get(random.nextInt(3));
+        events.add(new Event("Event " + i,
+            TimeRange.fromStartDuration(start, 15 + random.nextInt(105)), Arrays.asList(person)));
+      }
+      EventIndex index = new EventIndex(events);
+      MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+      request.addOptionalAttendee(PERSON_B);
+      request.addOptionalAttendee(PERSON_C);
+      TimeRange preferred =
+          TimeRange.fromStartDuration(random.nextInt(1200), 60 + random.nextInt(180));
+
+      List<MeetingWindow> all = query.queryTopSlots(index, request, preferred, Integer.MAX_VALUE);
+      for (int limit = 1; limit <= 5; limit++) {
+        Assert.assertEquals(all.subList(0, Math.min(limit, all.size())),
+            query.queryTopSlots(index, request, preferred, limit));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void topSlotsNeedPositiveLimit() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    query.queryTopSlots(new EventIndex(), request, TimeRange.WHOLE_DAY, 0);
+  }
+
+  @Test
+  public void largeGroupMatchesSmallGroupResult() {
+    // Twenty people share one meeting each, which gives the same free time as any one of them.
+    // Large groups are combined differently, so check both give the same answer.
+    //
+    // Events  :       |--All--|
+    // Day     : |---------------------|
+    // Options : |--1--|       |--2----|
+    List<String> group = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      group.add("Person " + i);
+    }
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false), group));
+
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+        TimeRange.fromStartEnd(TIME_0930AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected,
+        query.query(events, new MeetingRequest(group, DURATION_30_MINUTES)));
+    Assert.assertEquals(expected,
+        query.query(events, new MeetingRequest(group.subList(0, 1), DURATION_30_MINUTES)));
+  }
+
+  @Test
+  public void parallelQueryMatchesSequentialQuery() {
+    // A group large enough to be split across the pool, on a sparse calendar so some time is left.
+    Random random = new Random(2020);
+    List<String> group = new ArrayList<>();
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      String person = "Person " + i;
+      group.add(person);
+      if (random.nextInt(50) == 0) {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - DURATION_60_MINUTES);
+        events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, DURATION_60_MINUTES),
+            Arrays.asList(person)));
+      }
+    }
+    MeetingRequest request = new MeetingRequest(group, DURATION_30_MINUTES);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Collection<TimeRange> expected = query.query(events, request);
+      Collection<TimeRange> actual = new FindMeetingQuery(pool).query(events, request);
+
+      Assert.assertFalse(expected.isEmpty());
+      Assert.assertEquals(expected, actual);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
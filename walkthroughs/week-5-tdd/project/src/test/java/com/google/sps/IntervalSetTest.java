@@ -0,0 +1,122 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class IntervalSetTest {
+
+  private static IntervalSet of(int... bounds) {
+    IntervalSet set = new IntervalSet(1);
+    for (int i = 0; i < bounds.length; i += 2) {
+      set.add(bounds[i], bounds[i + 1]);
+    }
+    return set;
+  }
+
+  private static TimeRange range(int start, int end) {
+    return TimeRange.fromStartEnd(start, end, false);
+  }
+
+  @Test
+  public void sortOrdersByStartThenEnd() {
+    IntervalSet set = of(300, 400, 100, 250, 100, 200);
+
+    set.sort();
+
+    Assert.assertEquals(Arrays.asList(range(100, 200), range(100, 250), range(300, 400)),
+        set.toTimeRanges());
+  }
+
+  @Test
+  public void mergeJoinsOverlappingNestedAndTouching() {
+    // |---|
+    //   |---|
+    //    |-|
+    //       |---|       |---|
+    IntervalSet set = of(0, 30, 20, 50, 25, 35, 50, 60, 100, 120);
+
+    set.merge();
+
+    Assert.assertEquals(Arrays.asList(range(0, 60), range(100, 120)), set.toTimeRanges());
+  }
+
+  @Test
+  public void mergeDropsEmptyIntervals() {
+    IntervalSet set = of(10, 10, 20, 30);
+
+    set.merge();
+
+    Assert.assertEquals(Arrays.asList(range(20, 30)), set.toTimeRanges());
+  }
+
+  @Test
+  public void complementOfNothingIsTheWholeSpan() {
+    IntervalSet free = new IntervalSet();
+
+    new IntervalSet().complement(0, 1440, free);
+
+    Assert.assertEquals(Arrays.asList(range(0, 1440)), free.toTimeRanges());
+  }
+
+  @Test
+  public void complementCoversGapsAndEdges() {
+    IntervalSet free = new IntervalSet();
+
+    of(0, 60, 120, 180, 1400, 1440).complement(0, 1440, free);
+
+    Assert.assertEquals(Arrays.asList(range(60, 120), range(180, 1400)), free.toTimeRanges());
+  }
+
+  @Test
+  public void intersectKeepsOnlySharedTime() {
+    // A      : |-----|   |-----------|
+    // B      :    |---------|  |--|
+    // Result :    |--|   |--|  |--|
+    IntervalSet a = of(0, 60, 90, 200);
+    IntervalSet b = of(30, 120, 150, 170);
+    IntervalSet out = new IntervalSet();
+
+    IntervalSet.intersect(a, b, out);
+
+    Assert.assertEquals(Arrays.asList(range(30, 60), range(90, 120), range(150, 170)),
+        out.toTimeRanges());
+  }
+
+  @Test
+  public void intersectWithEmptyIsEmpty() {
+    IntervalSet out = of(1, 2);
+
+    IntervalSet.intersect(of(0, 60), new IntervalSet(), out);
+
+    Assert.assertEquals(Collections.emptyList(), out.toTimeRanges());
+  }
+
+  @Test
+  public void retainAtLeastDropsShortIntervals() {
+    IntervalSet set = of(0, 10, 20, 50, 60, 75);
+
+    set.retainAtLeast(15);
+
+    Assert.assertEquals(Arrays.asList(range(20, 50), range(60, 75)), set.toTimeRanges());
+  }
+}
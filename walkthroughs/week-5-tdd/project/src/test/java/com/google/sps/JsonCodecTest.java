@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class JsonCodecTest {
+  private static final Gson REFLECTIVE = new Gson();
+
+  @Test
+  public void timeRangeMatchesReflectiveJson() {
+    TimeRange range = TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(9, 30), 45);
+
+    Assert.assertEquals(REFLECTIVE.toJson(range), JsonCodec.GSON.toJson(range));
+  }
+
+  @Test
+  public void eventsKeepTheirJsonFormat() {
+    // Events no longer hold their attendees as a set of names, so compare with the format the
+    // reflective adapter wrote for that layout. Attendees may come out in any order.
+    for (Event event : Events.events) {
+      JsonObject json = REFLECTIVE.fromJson(JsonCodec.GSON.toJson(event), JsonObject.class);
+
+      Assert.assertEquals(3, json.size());
+      Assert.assertEquals(event.getTitle(), json.get("title").getAsString());
+      Assert.assertEquals(REFLECTIVE.toJsonTree(event.getWhen()), json.get("when"));
+      Set<String> attendees = new HashSet<>();
+      for (JsonElement attendee : json.getAsJsonArray("attendees")) {
+        attendees.add(attendee.getAsString());
+      }
+      Assert.assertEquals(event.getAttendees(), attendees);
+    }
+  }
+
+  @Test
+  public void eventRoundTrips() {
+    Event event = new Event("Sync", TimeRange.fromStartEnd(600, 630, false),
+        Arrays.asList("Person A", "Person B"));
+
+    String json = JsonCodec.GSON.toJson(event);
+
+    Assert.assertEquals(event, JsonCodec.GSON.fromJson(json, Event.class));
+  }
+
+  @Test
+  public void meetingRequestReadsScriptJson() {
+    // As sent by script.js.
+    String json = "{\"attendees\": [\"Person A\", \"Person B\", \"Person A\"],"
+        + " \"optional_attendees\": [\"Person C\", \"Person A\"], \"duration\": 30}";
+
+    MeetingRequest request = JsonCodec.GSON.fromJson(json, MeetingRequest.class);
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Person A", "Person B")),
+        new HashSet<>(request.getAttendees()));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Person C")),
+        new HashSet<>(request.getOptionalAttendees()));
+    Assert.assertEquals(30, request.getDuration());
+  }
+
+  @Test
+  public void meetingRequestRoundTrips() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Person A"), 45);
+    request.addOptionalAttendee("Person B");
+
+    MeetingRequest copy =
+        JsonCodec.GSON.fromJson(JsonCodec.GSON.toJson(request), MeetingRequest.class);
+
+    Assert.assertEquals(
+        new HashSet<>(request.getAttendees()), new HashSet<>(copy.getAttendees()));
+    Assert.assertEquals(new HashSet<>(request.getOptionalAttendees()),
+        new HashSet<>(copy.getOptionalAttendees()));
+    Assert.assertEquals(request.getDuration(), copy.getDuration());
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RecurrenceTest {
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+  private static EpochMinuteRange range(String start, String end) {
+    return EpochMinuteRange.between(Instant.parse(start), Instant.parse(end));
+  }
+
+  private static List<EpochMinuteRange> toList(Iterator<EpochMinuteRange> occurrences) {
+    List<EpochMinuteRange> list = new ArrayList<>();
+    occurrences.forEachRemaining(list::add);
+    return list;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void intervalMustBePositive() {
+    new Recurrence(Recurrence.Frequency.DAILY, 0, NEW_YORK, Recurrence.FOREVER);
+  }
+
+  @Test
+  public void onlyOccurrencesInHorizonAreGenerated() {
+    // A weekly 10:00 meeting that started years before the horizon, which crosses the start of
+    // daylight saving on 2030-03-10.
+    EpochMinuteRange first = range("2020-01-06T15:00:00Z", "2020-01-06T15:30:00Z");
+    EpochMinuteRange horizon = range("2030-03-04T00:00:00Z", "2030-03-18T00:00:00Z");
+
+    List<EpochMinuteRange> actual = toList(Recurrence.weekly(NEW_YORK).occurrences(first, horizon));
+
+    Assert.assertEquals(Arrays.asList(range("2030-03-04T15:00:00Z", "2030-03-04T15:30:00Z"),
+        range("2030-03-11T14:00:00Z", "2030-03-11T14:30:00Z")), actual);
+  }
+
+  @Test
+  public void countEndsRecurrence() {
+    EpochMinuteRange first = range("2020-07-06T12:00:00Z", "2020-07-06T13:00:00Z");
+    EpochMinuteRange horizon = range("2020-07-01T00:00:00Z", "2020-07-31T00:00:00Z");
+    Recurrence recurrence = new Recurrence(Recurrence.Frequency.DAILY, 2, NEW_YORK, 3);
+
+    Assert.assertEquals(Arrays.asList(first,
+        range("2020-07-08T12:00:00Z", "2020-07-08T13:00:00Z"),
+        range("2020-07-10T12:00:00Z", "2020-07-10T13:00:00Z")),
+        toList(recurrence.occurrences(first, horizon)));
+  }
+
+  @Test
+  public void occurrenceRunningIntoHorizonIsIncluded() {
+    EpochMinuteRange first = range("2020-07-06T22:00:00Z", "2020-07-07T02:00:00Z");
+    EpochMinuteRange horizon = range("2020-07-14T00:00:00Z", "2020-07-14T01:00:00Z");
+
+    Assert.assertEquals(Arrays.asList(range("2020-07-13T22:00:00Z", "2020-07-14T02:00:00Z")),
+        toList(Recurrence.weekly(NEW_YORK).occurrences(first, horizon)));
+  }
+}
@@ -0,0 +1,171 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RoomPoolTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final Room SMALL = new Room("Room Small", 2);
+  private static final Room LARGE = new Room("Room Large", 10);
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  private static final int DURATION_60_MINUTES = 60;
+
+  private static Event booking(String title, int start, int end, String... attendees) {
+    return new Event(title, TimeRange.fromStartEnd(start, end, false), Arrays.asList(attendees));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void roomNeedsCapacity() {
+    new Room("Closet", 0);
+  }
+
+  @Test
+  public void roomForPicksSmallestRoomThatFits() {
+    RoomPool rooms = new RoomPool(Arrays.asList(LARGE, SMALL), new EventIndex());
+
+    TimeRange slot = TimeRange.fromStartDuration(TIME_0900AM, DURATION_60_MINUTES);
+    Assert.assertEquals(SMALL, rooms.roomFor(slot, 2));
+    Assert.assertEquals(LARGE, rooms.roomFor(slot, 3));
+    Assert.assertNull(rooms.roomFor(slot, 11));
+  }
+
+  @Test
+  public void roomForSkipsBookedRooms() {
+    EventIndex index = new EventIndex(Arrays.asList(
+        booking("Standup", TIME_0900AM, TIME_1000AM, SMALL.getName(), PERSON_C)));
+    RoomPool rooms = new RoomPool(Arrays.asList(LARGE, SMALL), index);
+
+    Assert.assertEquals(LARGE,
+        rooms.roomFor(TimeRange.fromStartDuration(TIME_0900AM + 30, DURATION_60_MINUTES), 1));
+    Assert.assertEquals(SMALL,
+        rooms.roomFor(TimeRange.fromStartDuration(TIME_1000AM, DURATION_60_MINUTES), 1));
+  }
+
+  @Test
+  public void windowsNeedALargeEnoughRoom() {
+    // The small room is always free but cannot hold three people; the large one is booked 9-10.
+    EventIndex index = new EventIndex(Arrays.asList(
+        booking("All hands", TIME_0900AM, TIME_1000AM, LARGE.getName())));
+    RoomPool rooms = new RoomPool(Arrays.asList(SMALL, LARGE), index);
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B, PERSON_C), DURATION_60_MINUTES);
+
+    Collection<TimeRange> actual = new FindMeetingQuery().query(index, rooms, request);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+        TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void windowsMaySpanRoomsButNotGapsBetweenThem() {
+    // Each room is booked for a different hour, so every slot has a room except those that would
+    // need to move rooms halfway through.
+    Room other = new Room("Room Other", 10);
+    EventIndex index = new EventIndex(Arrays.asList(
+        booking("Review", TIME_0900AM, TIME_1000AM, LARGE.getName()),
+        booking("Interview", TIME_1000AM, TIME_1100AM, other.getName())));
+    RoomPool rooms = new RoomPool(Arrays.asList(LARGE, other), index);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+
+    Collection<TimeRange> actual = new FindMeetingQuery().query(index, rooms, request);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_1000AM, false),
+        TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void noRoomsMeansNoWindows() {
+    RoomPool rooms = new RoomPool(Collections.emptyList(), new EventIndex());
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+
+    Assert.assertEquals(Arrays.asList(),
+        new FindMeetingQuery().query(new EventIndex(), rooms, request));
+  }
+
+  @Test
+  public void optionalAttendeesAreDroppedWhenNoRoomHoldsThem() {
+    RoomPool rooms = new RoomPool(Arrays.asList(SMALL), new EventIndex());
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_60_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    Collection<TimeRange> actual = new FindMeetingQuery().query(new EventIndex(), rooms, request);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY), actual);
+  }
+
+  @Test
+  public void matchesCheckingEverySlot() {
+    Random random = new Random(21);
+    List<Room> pool = new ArrayList<>();
+    List<Event> events = new ArrayList<>();
+    for (int r = 0; r < 40; r++) {
+      Room room = new Room("Random room " + r, 1 + random.nextInt(8));
+      pool.add(room);
+      for (int b = 0; b < 6; b++) {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - 90);
+        events.add(booking("Booking", start, start + 15 + random.nextInt(75), room.getName()));
+      }
+    }
+    for (int b = 0; b < 4; b++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - 120);
+      events.add(booking("Busy", start, start + 30 + random.nextInt(90), PERSON_A));
+    }
+    EventIndex index = new EventIndex(events);
+    RoomPool rooms = new RoomPool(pool, index);
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B, PERSON_C), DURATION_60_MINUTES);
+    Collection<TimeRange> personFree = new FindMeetingQuery().query(index, request);
+    Collection<TimeRange> windows = new FindMeetingQuery().query(index, rooms, request);
+
+    for (int start = 0; start + DURATION_60_MINUTES <= TimeRange.WHOLE_DAY.end(); start++) {
+      TimeRange slot = TimeRange.fromStartDuration(start, DURATION_60_MINUTES);
+      boolean expected = containedIn(slot, personFree) && rooms.roomFor(slot, 3) != null;
+      Assert.assertEquals("slot " + slot, expected, containedIn(slot, windows));
+    }
+  }
+
+  private static boolean containedIn(TimeRange slot, Collection<TimeRange> windows) {
+    for (TimeRange window : windows) {
+      if (window.contains(slot)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeRangeIndexTest {
+  private static final TimeRange ALL_DAY = TimeRange.WHOLE_DAY;
+  private static final TimeRange MORNING = TimeRange.fromStartDuration(540, 60);
+  private static final TimeRange LATE_MORNING = TimeRange.fromStartDuration(570, 90);
+  private static final TimeRange EVENING = TimeRange.fromStartDuration(1080, 90);
+
+  private final TimeRangeIndex index =
+      new TimeRangeIndex(Arrays.asList(ALL_DAY, MORNING, LATE_MORNING, EVENING));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rangesMustBeSortedByStart() {
+    new TimeRangeIndex(Arrays.asList(MORNING, ALL_DAY));
+  }
+
+  @Test
+  public void stabFindsRangesContainingMinute() {
+    Assert.assertArrayEquals(new int[] {0, 1, 2}, index.stab(580));
+    Assert.assertArrayEquals(new int[] {0, 2}, index.stab(600));
+    Assert.assertArrayEquals(new int[] {0}, index.stab(1000));
+  }
+
+  @Test
+  public void touchingRangesDoNotOverlap() {
+    Assert.assertArrayEquals(new int[] {0},
+        index.overlapping(TimeRange.fromStartEnd(660, 1080, false)));
+  }
+
+  @Test
+  public void overlappingResumesFromPositionAndStopsAtLimit() {
+    Assert.assertArrayEquals(new int[] {1, 2}, index.overlapping(0, 1440, 1, 2));
+    Assert.assertArrayEquals(new int[] {3}, index.overlapping(0, 1440, 3, 10));
+    Assert.assertEquals(2, index.firstOverlapping(600, 700, 1));
+    Assert.assertEquals(index.size(), index.firstOverlapping(700, 800, 1));
+  }
+
+  @Test
+  public void matchesScanningEveryRange() {
+    Random random = new Random(22);
+    List<TimeRange> ranges = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      int start = random.nextInt(1400);
+      // Mostly short ranges, with some long ones that a bound on duration would have to scan past.
+      int duration = random.nextInt(random.nextBoolean() ? 30 : 600);
+      ranges.add(TimeRange.fromStartDuration(start, duration));
+    }
+    ranges.sort(TimeRange.ORDER_BY_START);
+    TimeRangeIndex index = new TimeRangeIndex(ranges);
+
+    for (int query = 0; query < 300; query++) {
+      TimeRange window =
+          TimeRange.fromStartDuration(random.nextInt(1400), 1 + random.nextInt(120));
+      int from = random.nextInt(ranges.size());
+      List<Integer> expected = new ArrayList<>();
+      for (int i = from; i < ranges.size(); i++) {
+        if (ranges.get(i).overlaps(window)) {
+          expected.add(i);
+        }
+      }
+
+      int[] actual = index.overlapping(window.start(), window.end(), from, Integer.MAX_VALUE);
+      Assert.assertEquals(expected.size(), actual.length);
+      for (int i = 0; i < actual.length; i++) {
+        Assert.assertEquals((int) expected.get(i), actual[i]);
+      }
+      int first = expected.isEmpty() ? ranges.size() : expected.get(0);
+      Assert.assertEquals(first, index.firstOverlapping(window.start(), window.end(), from));
+    }
+  }
+}
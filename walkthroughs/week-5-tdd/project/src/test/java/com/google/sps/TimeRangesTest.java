@@ -0,0 +1,131 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeRangesTest {
+
+  private static TimeRange range(int start, int end) {
+    return TimeRange.fromStartEnd(start, end, false);
+  }
+
+  @Test
+  public void noSchedules() {
+    Assert.assertEquals(
+        Collections.emptyList(), TimeRanges.intersectAll(Collections.emptyList(), 0));
+  }
+
+  @Test
+  public void emptyScheduleLeavesNothingInCommon() {
+    List<List<TimeRange>> schedules =
+        Arrays.asList(Arrays.asList(TimeRange.WHOLE_DAY), Collections.emptyList());
+
+    Assert.assertEquals(Collections.emptyList(), TimeRanges.intersectAll(schedules, 0));
+  }
+
+  @Test
+  public void threeSchedules() {
+    // A: |--------|     |-----|
+    // B:    |--------------|
+    // C: |------|  |--------------|
+    List<List<TimeRange>> schedules = Arrays.asList(
+        Arrays.asList(range(0, 90), range(140, 200)),
+        Arrays.asList(range(30, 170)),
+        Arrays.asList(range(0, 70), range(100, 240)));
+
+    Assert.assertEquals(Arrays.asList(range(30, 70), range(140, 170)),
+        TimeRanges.intersectAll(schedules, 0));
+  }
+
+  @Test
+  public void touchingRangesAreJoinedBeforeDurationFilter() {
+    // A: |----|----|
+    // B: |---------|
+    List<List<TimeRange>> schedules = Arrays.asList(
+        Arrays.asList(range(0, 20), range(20, 40)),
+        Arrays.asList(range(0, 40)));
+
+    Assert.assertEquals(Arrays.asList(range(0, 40)), TimeRanges.intersectAll(schedules, 30));
+  }
+
+  @Test
+  public void shortOverlapsAreDropped() {
+    List<List<TimeRange>> schedules = Arrays.asList(
+        Arrays.asList(range(0, 40), range(100, 200)),
+        Arrays.asList(range(30, 150)));
+
+    Assert.assertEquals(Arrays.asList(range(100, 150)), TimeRanges.intersectAll(schedules, 30));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void overlappingScheduleIsRejected() {
+    List<List<TimeRange>> schedules = Arrays.asList(
+        Arrays.asList(range(0, 40), range(30, 60)),
+        Arrays.asList(TimeRange.WHOLE_DAY));
+
+    TimeRanges.intersectAll(schedules, 0);
+  }
+
+  @Test
+  public void matchesMinuteByMinuteIntersection() {
+    Random random = new Random(42);
+    int day = TimeRange.WHOLE_DAY.end();
+    for (int trial = 0; trial < 200; trial++) {
+      int scheduleCount = 1 + random.nextInt(6);
+      boolean[] common = new boolean[day];
+      Arrays.fill(common, true);
+      List<List<TimeRange>> schedules = new ArrayList<>();
+      for (int s = 0; s < scheduleCount; s++) {
+        List<TimeRange> schedule = new ArrayList<>();
+        boolean[] free = new boolean[day];
+        int cursor = random.nextInt(120);
+        while (cursor < day) {
+          int end = Math.min(day, cursor + 1 + random.nextInt(240));
+          schedule.add(range(cursor, end));
+          Arrays.fill(free, cursor, end, true);
+          cursor = end + random.nextInt(120);
+        }
+        for (int minute = 0; minute < day; minute++) {
+          common[minute] &= free[minute];
+        }
+        schedules.add(schedule);
+      }
+
+      List<TimeRange> expected = new ArrayList<>();
+      for (int minute = 0; minute < day; minute++) {
+        if (common[minute]) {
+          int start = minute;
+          while (minute < day && common[minute]) {
+            minute++;
+          }
+          expected.add(range(start, minute));
+        }
+      }
+
+      Assert.assertEquals(expected, TimeRanges.intersectAll(schedules, 0));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic single-day calendars for benchmarks. Everything is drawn from a seeded
+ * {@code Random}, so the same arguments always produce the same calendar.
+ */
+public final class CalendarGenerator {
+  private static final int SLOT_MINUTES = 15;
+  private static final int MAX_EVENT_SLOTS = 8;
+
+  private final Random random;
+  private final List<String> people;
+
+  /**
+   * @param population How many distinct people appear across the calendar.
+   * @param seed Seed for every random choice this generator makes.
+   */
+  public CalendarGenerator(int population, long seed) {
+    this.random = new Random(seed);
+    this.people = new ArrayList<>(population);
+    for (int i = 0; i < population; i++) {
+      people.add("Person " + i);
+    }
+  }
+
+  /**
+   * Returns {@code count} events, each between 15 minutes and 2 hours long on a 15 minute grid,
+   * with {@code attendeesPerEvent} distinct attendees each.
+   */
+  public List<Event> events(int count, int attendeesPerEvent) {
+    List<Event> events = new ArrayList<>(count);
+    int slotsPerDay = TimeRange.WHOLE_DAY.duration() / SLOT_MINUTES;
+    for (int i = 0; i < count; i++) {
+      int length = 1 + random.nextInt(MAX_EVENT_SLOTS);
+      int start = random.nextInt(slotsPerDay - length + 1);
+      TimeRange when = TimeRange.fromStartDuration(start * SLOT_MINUTES, length * SLOT_MINUTES);
+      events.add(new Event("Event " + i, when, pickPeople(attendeesPerEvent)));
+    }
+    return events;
+  }
+
+  /**
+   * Returns a request for a meeting of {@code duration} minutes with {@code attendees} required
+   * and {@code optionalAttendees} optional people, all distinct.
+   */
+  public MeetingRequest request(int attendees, int optionalAttendees, int duration) {
+    List<String> everyone = new ArrayList<>(pickPeople(attendees + optionalAttendees));
+    MeetingRequest request = new MeetingRequest(everyone.subList(0, attendees), duration);
+    for (String optional : everyone.subList(attendees, everyone.size())) {
+      request.addOptionalAttendee(optional);
+    }
+    return request;
+  }
+
+  private Set<String> pickPeople(int count) {
+    if (count > people.size()) {
+      throw new IllegalArgumentException("Cannot pick " + count + " people out of "
+          + people.size() + ".");
+    }
+
+    Set<String> picked = new LinkedHashSet<>();
+    while (picked.size() < count) {
+      picked.add(people.get(random.nextInt(people.size())));
+    }
+    return picked;
+  }
+}
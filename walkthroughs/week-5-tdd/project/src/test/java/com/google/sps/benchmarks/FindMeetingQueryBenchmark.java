@@ -0,0 +1,121 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.MeetingWindow;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code FindMeetingQuery.query} throughput on synthetic calendars. Run with
+ * {@code -Djmh.args="FindMeetingQueryBenchmark -prof gc"} to also report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindMeetingQueryBenchmark {
+
+  private static final long SEED = 20200701L;
+  private static final int DURATION_MINUTES = 30;
+
+  // More distinct groups than the index caches, so cycling through them never hits the cache.
+  private static final int UNCACHED_REQUESTS = 512;
+
+  /** Distinct people across the whole calendar. */
+  @Param({"5000"})
+  public int population;
+
+  /** Events on the calendar for the day. */
+  @Param({"1000", "10000", "50000"})
+  public int eventCount;
+
+  @Param({"2", "10"})
+  public int attendeesPerEvent;
+
+  /** Required attendees in the request. */
+  @Param({"5", "50", "1000"})
+  public int requestSize;
+
+  @Param({"0", "20", "200"})
+  public int optionalAttendees;
+
+  private List<Event> events;
+  private EventIndex index;
+  private MeetingRequest request;
+  private MeetingRequest[] uncachedRequests;
+  private int nextUncached;
+  private FindMeetingQuery findMeetingQuery;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(population, SEED);
+    events = generator.events(eventCount, attendeesPerEvent);
+    index = new EventIndex(events);
+    request = generator.request(requestSize, optionalAttendees, DURATION_MINUTES);
+    uncachedRequests = new MeetingRequest[UNCACHED_REQUESTS];
+    for (int i = 0; i < UNCACHED_REQUESTS; i++) {
+      uncachedRequests[i] = generator.request(requestSize, optionalAttendees, DURATION_MINUTES);
+    }
+    findMeetingQuery = new FindMeetingQuery();
+  }
+
+  @Benchmark
+  public Collection<TimeRange> query() {
+    return findMeetingQuery.query(events, request);
+  }
+
+  /**
+   * Same query against an index built once, as a long-running server would hold it. The index
+   * caches the group's free time, so after the first call this measures a repeated query.
+   */
+  @Benchmark
+  public Collection<TimeRange> queryPrebuiltIndex() {
+    return findMeetingQuery.query(index, request);
+  }
+
+  /** Prebuilt index, but a different group each call, so every query misses the group cache. */
+  @Benchmark
+  public Collection<TimeRange> queryPrebuiltIndexUncached() {
+    MeetingRequest uncached = uncachedRequests[nextUncached];
+    nextUncached = (nextUncached + 1) % UNCACHED_REQUESTS;
+    return findMeetingQuery.query(index, uncached);
+  }
+
+  /** Best-effort mode, which counts free optional attendees instead of requiring all of them. */
+  @Benchmark
+  public List<MeetingWindow> queryMaximizingOptionalsPrebuiltIndex() {
+    return findMeetingQuery.queryMaximizingOptionals(index, request);
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.sps.Event;
+import com.google.sps.Events;
+import com.google.sps.JsonCodec;
+import com.google.sps.TimeRange;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing the servlet response types with Gson's reflective adapters against the
+ * hand-written adapters in {@code JsonCodec}. The {@code newGsonPerCall} cases measure what the
+ * servlets used to do: build a fresh Gson for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+  private static final Type TIME_RANGES = new TypeToken<Collection<TimeRange>>() {}.getType();
+
+  private final Gson reflective = new Gson();
+
+  private Event[] events;
+  private List<TimeRange> timeRanges;
+
+  @Setup
+  public void setUp() {
+    events = Events.events;
+    timeRanges = new ArrayList<>();
+    for (Event event : events) {
+      timeRanges.add(event.getWhen());
+    }
+  }
+
+  @Benchmark
+  public String timeRangesNewGsonPerCall() {
+    return new Gson().toJson(timeRanges, TIME_RANGES);
+  }
+
+  @Benchmark
+  public String timeRangesReflective() {
+    return reflective.toJson(timeRanges, TIME_RANGES);
+  }
+
+  @Benchmark
+  public String timeRangesAdapter() {
+    return JsonCodec.GSON.toJson(timeRanges, TIME_RANGES);
+  }
+
+  @Benchmark
+  public String eventsNewGsonPerCall() {
+    return new Gson().toJson(events);
+  }
+
+  @Benchmark
+  public String eventsReflective() {
+    return reflective.toJson(events);
+  }
+
+  @Benchmark
+  public String eventsAdapter() {
+    return JsonCodec.GSON.toJson(events);
+  }
+}
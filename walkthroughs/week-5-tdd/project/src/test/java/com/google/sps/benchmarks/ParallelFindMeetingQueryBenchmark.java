@@ -0,0 +1,94 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.EventIndex;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how {@code FindMeetingQuery} scales with the size of its {@code ForkJoinPool} on
+ * all-hands sized requests. {@code parallelism} 0 is the sequential query, for reference. Results
+ * only mean something on a machine with at least as many cores as the largest pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFindMeetingQueryBenchmark {
+
+  private static final long SEED = 20200701L;
+  private static final int DURATION_MINUTES = 30;
+
+  @Param({"50000"})
+  public int population;
+
+  @Param({"100000"})
+  public int eventCount;
+
+  @Param({"2"})
+  public int attendeesPerEvent;
+
+  @Param({"5000", "20000"})
+  public int requestSize;
+
+  /** Worker threads in the pool, or 0 to run sequentially. */
+  @Param({"0", "1", "2", "4", "8"})
+  public int parallelism;
+
+  private EventIndex index;
+  private MeetingRequest request;
+  private ForkJoinPool pool;
+  private FindMeetingQuery findMeetingQuery;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(population, SEED);
+    index = new EventIndex(generator.events(eventCount, attendeesPerEvent));
+    request = generator.request(requestSize, 0, DURATION_MINUTES);
+    pool = parallelism > 0 ? new ForkJoinPool(parallelism) : null;
+    findMeetingQuery = new FindMeetingQuery(pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public Collection<TimeRange> queryPrebuiltIndex() {
+    return findMeetingQuery.query(index, request);
+  }
+}